@@ -0,0 +1,364 @@
+package BLL;
+
+import DB.ClientDAO;
+import DB.ConnectionFactory;
+import DB.Order1DAO;
+import DB.OrderItemDAO;
+import DB.ProductDAO;
+import model.Client;
+import model.Order1;
+import model.OrderItem;
+import model.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * BillGenerator renders the bill of an order, with its client, its lines and its total, to a text file.
+ * The bill of order 42 placed on 2024-03-31 is written to {@code <directory>/2024-03-31/bill-42.txt},
+ * replacing any earlier bill of the same order, so bills can be regenerated at will.
+ * <p>
+ * Bills are written one order at a time with {@link #generate(int)}, as the order is placed, or for all orders
+ * of a date range with {@link #generateRange(Timestamp, Timestamp)}. The range is read from a forward-only
+ * cursor and cut into chunks of {@value #CHUNK_SIZE} orders, each loaded with one query for its lines, one for
+ * its clients and one for the products not seen yet, then rendered on a worker pool. The pool has a bounded
+ * queue and the reading thread renders a chunk itself when the queue is full, so a month of orders is
+ * rendered in constant memory and without using more connections than the pool has.
+ */
+public class BillGenerator {
+    private static final Logger LOGGER = Logger.getLogger(BillGenerator.class.getName());
+    private static final int CHUNK_SIZE = 100;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String HEADER_FORMAT = "%-40.40s %8s %12s %14s%n";
+    private static final String LINE_FORMAT = "%-40.40s %8d %12s %14s%n";
+    private static final String RULE = "-".repeat(77) + System.lineSeparator();
+
+    private final Path directory;
+    private final Order1DAO orderDAO;
+    private final OrderItemDAO orderItemDAO;
+    private final ClientDAO clientDAO;
+    private final ProductDAO productDAO;
+
+    /**
+     * Constructs a new BillGenerator writing to the directory named by the {@code bills.dir} system property,
+     * {@code bills} by default, using the default DAOs.
+     */
+    public BillGenerator() {
+        this(Paths.get(System.getProperty("bills.dir", "bills")));
+    }
+
+    /**
+     * Constructs a new BillGenerator writing to the given directory, using the default DAOs.
+     *
+     * @param directory The directory the bills are written to.
+     */
+    public BillGenerator(Path directory) {
+        this(directory, new Order1DAO(), new OrderItemDAO(), new ClientDAO(), new ProductDAO());
+    }
+
+    /**
+     * Constructs a new BillGenerator writing to the given directory, using the given DAOs.
+     *
+     * @param directory    The directory the bills are written to.
+     * @param orderDAO     The DAO the orders are read with.
+     * @param orderItemDAO The DAO the order lines are read with.
+     * @param clientDAO    The DAO the clients are read with.
+     * @param productDAO   The DAO the products are read with.
+     */
+    public BillGenerator(Path directory, Order1DAO orderDAO, OrderItemDAO orderItemDAO, ClientDAO clientDAO,
+                         ProductDAO productDAO) {
+        this.directory = directory;
+        this.orderDAO = orderDAO;
+        this.orderItemDAO = orderItemDAO;
+        this.clientDAO = clientDAO;
+        this.productDAO = productDAO;
+    }
+
+    /**
+     * Writes the bill of one order.
+     *
+     * @param orderId The ID of the order.
+     * @return The bill file, or null if the order does not exist or the bill could not be written.
+     */
+    public Path generate(int orderId) {
+        try {
+            Order1 order = orderDAO.findById(orderId);
+            if (order == null) {
+                LOGGER.log(Level.WARNING, "BillGenerator:generate no order " + orderId);
+                return null;
+            }
+            return new BillRun().renderChunk(List.of(order)).get(0);
+        } catch (UncheckedIOException e) {
+            LOGGER.log(Level.WARNING, "BillGenerator:generate " + orderId + " " + e.getCause().getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "BillGenerator:generate " + orderId + " " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the bills of all orders placed in a date range. Bills that cannot be written are logged and
+     * skipped, so that one bad order does not stop a month-end run.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return The number of bills written.
+     */
+    public long generateRange(Timestamp from, Timestamp to) {
+        BillRun run = new BillRun();
+        int threads = workerCount();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * threads), new WorkerFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (Stream<Order1> orders = orderDAO.streamByOrderDate(from, to)) {
+            List<Order1> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (Order1 order : (Iterable<Order1>) orders::iterator) {
+                chunk.add(order);
+                if (chunk.size() == CHUNK_SIZE) {
+                    run.submit(workers, chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                run.submit(workers, chunk);
+            }
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+        return run.written.sum();
+    }
+
+    /**
+     * Chooses the number of worker threads: one per processor, but leaving one connection of the pool
+     * to the cursor reading the orders.
+     *
+     * @return The number of workers, at least 1.
+     */
+    private static int workerCount() {
+        int connections = ConnectionFactory.getPool().getMaxSize() - 1;
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), connections));
+    }
+
+    private static void awaitTermination(ThreadPoolExecutor workers) {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.log(Level.INFO, "BillGenerator:generateRange waiting for " + workers.getActiveCount()
+                        + " workers");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Renders a bill.
+     *
+     * @param order    The order.
+     * @param client   The client of the order, or null if it no longer exists.
+     * @param items    The lines of the order.
+     * @param products The products of the lines by ID; products that no longer exist are missing.
+     * @return The text of the bill.
+     */
+    private static String render(Order1 order, Client client, List<OrderItem> items, Map<Integer, Product> products) {
+        StringBuilder sb = new StringBuilder(512 + 80 * items.size());
+        sb.append("BILL #").append(order.getId()).append(System.lineSeparator());
+        if (order.getorder_date() != null) {
+            sb.append("Date: ").append(order.getorder_date().toLocalDateTime().format(TIME_FORMAT))
+                    .append(System.lineSeparator());
+        }
+        if (client != null) {
+            sb.append("Client: ").append(client.getName()).append(System.lineSeparator());
+            sb.append("Email: ").append(client.getEmail()).append(System.lineSeparator());
+            sb.append("Address: ").append(client.getAddress()).append(System.lineSeparator());
+        } else {
+            sb.append("Client: #").append(order.getclient_id()).append(System.lineSeparator());
+        }
+        if (order.getDescription() != null && !order.getDescription().isBlank()) {
+            sb.append("Description: ").append(order.getDescription()).append(System.lineSeparator());
+        }
+        sb.append(System.lineSeparator());
+        sb.append(String.format(HEADER_FORMAT, "Product", "Quantity", "Unit price", "Amount"));
+        sb.append(RULE);
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            Product product = products.get(item.getproduct_id());
+            String name = product != null ? product.getName() : "#" + item.getproduct_id();
+            BigDecimal unitPrice = item.getunit_price() != null ? item.getunit_price()
+                    : product != null ? product.getPrice() : BigDecimal.ZERO;
+            BigDecimal amount = unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+            total = total.add(amount);
+            sb.append(String.format(LINE_FORMAT, name, item.getQuantity(), unitPrice.toPlainString(),
+                    amount.toPlainString()));
+        }
+        sb.append(RULE);
+        sb.append(String.format(HEADER_FORMAT, "Total", "", "", total.toPlainString()));
+        return sb.toString();
+    }
+
+    /**
+     * Writes the bills of all orders placed between two dates, both included.
+     *
+     * @param args The directory to write to, and the first and last dates of the range, as {@code yyyy-MM-dd}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: BillGenerator <directory> <from yyyy-MM-dd> <to yyyy-MM-dd>");
+            System.exit(2);
+        }
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(args[1], DATE_FORMAT);
+            to = LocalDate.parse(args[2], DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date: " + e.getParsedString());
+            System.exit(2);
+            return;
+        }
+        long start = System.nanoTime();
+        long written = new BillGenerator(Paths.get(args[0]))
+                .generateRange(Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        LOGGER.log(Level.INFO, "BillGenerator: " + written + " bills written in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    /**
+     * The state of one generation: the products already read and the number of bills written.
+     * Products are read once per run, since a month of orders mostly orders the same few products.
+     */
+    private final class BillRun {
+        private final Map<Integer, Product> products = new ConcurrentHashMap<>();
+        private final LongAdder written = new LongAdder();
+
+        private void submit(ThreadPoolExecutor workers, List<Order1> chunk) {
+            workers.execute(() -> {
+                try {
+                    renderChunk(chunk);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "BillGenerator:generateRange orders " + chunk.get(0).getId()
+                            + " to " + chunk.get(chunk.size() - 1).getId() + " " + e.getMessage());
+                }
+            });
+        }
+
+        /**
+         * Loads the lines, clients and products of a chunk of orders and writes their bills.
+         *
+         * @param orders The orders.
+         * @return The bill files written, in the order of the orders.
+         * @throws UncheckedIOException If a bill cannot be written; the bills of a range are logged and skipped instead.
+         */
+        private List<Path> renderChunk(List<Order1> orders) {
+            List<Integer> orderIds = new ArrayList<>(orders.size());
+            Set<Integer> clientIds = new HashSet<>();
+            for (Order1 order : orders) {
+                orderIds.add(order.getId());
+                clientIds.add(order.getclient_id());
+            }
+
+            Map<Integer, List<OrderItem>> itemsByOrder = new HashMap<>();
+            Set<Integer> missingProducts = new HashSet<>();
+            for (OrderItem item : orderItemDAO.findByOrderIds(orderIds)) {
+                itemsByOrder.computeIfAbsent(item.getorder_id(), id -> new ArrayList<>()).add(item);
+                if (!products.containsKey(item.getproduct_id())) {
+                    missingProducts.add(item.getproduct_id());
+                }
+            }
+            if (!missingProducts.isEmpty()) {
+                for (Product product : productDAO.findByIds(missingProducts)) {
+                    products.put(product.getId(), product);
+                }
+            }
+            Map<Integer, Client> clients = new HashMap<>();
+            for (Client client : clientDAO.findByIds(clientIds)) {
+                clients.put(client.getId(), client);
+            }
+
+            List<Path> files = new ArrayList<>(orders.size());
+            for (Order1 order : orders) {
+                List<OrderItem> items = itemsByOrder.getOrDefault(order.getId(), new ArrayList<>());
+                items.sort(Comparator.comparingInt(OrderItem::getId));
+                String bill = render(order, clients.get(order.getclient_id()), items, products);
+                try {
+                    files.add(write(order, bill));
+                    written.increment();
+                } catch (IOException e) {
+                    if (orders.size() == 1) {
+                        throw new UncheckedIOException(e);
+                    }
+                    LOGGER.log(Level.WARNING, "BillGenerator:generateRange order " + order.getId() + " "
+                            + e.getMessage());
+                    files.add(null);
+                }
+            }
+            return files;
+        }
+
+        /**
+         * Writes a bill with a single write, which for files of a few kilobytes is cheaper than mapping them.
+         * The directory of the day is created by the first bill of the day.
+         *
+         * @param order The order.
+         * @param bill  The text of the bill.
+         * @return The bill file.
+         * @throws IOException If the file cannot be written.
+         */
+        private Path write(Order1 order, String bill) throws IOException {
+            Timestamp date = order.getorder_date();
+            Path day = directory.resolve(date != null ? date.toLocalDateTime().format(DATE_FORMAT) : "undated");
+            Path file = day.resolve("bill-" + order.getId() + ".txt");
+            byte[] bytes = bill.getBytes(StandardCharsets.UTF_8);
+            try {
+                Files.write(file, bytes);
+            } catch (NoSuchFileException e) {
+                Files.createDirectories(day);
+                Files.write(file, bytes);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * Creates the daemon worker threads of a generation, named after it.
+     */
+    private static final class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "bill-generator-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
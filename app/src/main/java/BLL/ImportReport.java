@@ -0,0 +1,103 @@
+package BLL;
+
+import java.time.Duration;
+
+/**
+ * ImportReport sums up one run of the {@link OrderImporter}: how many lines and orders were read,
+ * how many were imported and how many lines were rejected. The rejected lines themselves, with the reason,
+ * are in the reject file of the run.
+ */
+public class ImportReport {
+    private final long lineCount;
+    private final long orderCount;
+    private final long importedOrderCount;
+    private final long importedLineCount;
+    private final long rejectedLineCount;
+    private final Duration elapsed;
+
+    /**
+     * Creates an import report.
+     *
+     * @param lineCount          The number of non-blank lines read.
+     * @param orderCount         The number of orders read.
+     * @param importedOrderCount The number of orders placed.
+     * @param importedLineCount  The number of lines stored as order lines.
+     * @param rejectedLineCount  The number of lines rejected.
+     * @param elapsed            How long the import took.
+     */
+    public ImportReport(long lineCount, long orderCount, long importedOrderCount, long importedLineCount,
+                        long rejectedLineCount, Duration elapsed) {
+        this.lineCount = lineCount;
+        this.orderCount = orderCount;
+        this.importedOrderCount = importedOrderCount;
+        this.importedLineCount = importedLineCount;
+        this.rejectedLineCount = rejectedLineCount;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Gets the number of non-blank lines read.
+     *
+     * @return The line count.
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the number of orders read, imported or not. Lines that could not be parsed belong to no order.
+     *
+     * @return The order count.
+     */
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Gets the number of orders placed.
+     *
+     * @return The imported order count.
+     */
+    public long getImportedOrderCount() {
+        return importedOrderCount;
+    }
+
+    /**
+     * Gets the number of lines stored as order lines.
+     *
+     * @return The imported line count.
+     */
+    public long getImportedLineCount() {
+        return importedLineCount;
+    }
+
+    /**
+     * Gets the number of lines rejected.
+     *
+     * @return The rejected line count.
+     */
+    public long getRejectedLineCount() {
+        return rejectedLineCount;
+    }
+
+    /**
+     * Gets how long the import took.
+     *
+     * @return The elapsed time.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns a one-line summary of the import.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        return "ImportReport{lines=" + lineCount + ", orders=" + orderCount
+                + ", importedOrders=" + importedOrderCount + ", importedLines=" + importedLineCount
+                + ", rejectedLines=" + rejectedLineCount + ", elapsedMillis=" + elapsed.toMillis() + '}';
+    }
+}
@@ -0,0 +1,875 @@
+package BLL;
+
+import DB.ConnectionFactory;
+import DB.InventoryCheckpointDAO;
+import DB.Order1DAO;
+import DB.ProductDAO;
+import model.Order1;
+import model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InventoryEngine keeps the stock of the ordered products in memory, so that orders of the same few products
+ * during a sale do not all queue on the same product rows. Each product has an available and a reserved
+ * counter, updated without locks: reserving an order line is one compare-and-set on the available counter.
+ * <p>
+ * An order first {@linkplain #reserve reserves} its quantities, then either {@linkplain #commit commits} the
+ * reservation together with the order, or {@linkplain #release releases} it. Sales and restocks are appended
+ * to a journal file, then added up per product and written to the product table by a periodic flush,
+ * one batch of {@code quantity = quantity + delta} updates per flush whatever the number of orders.
+ * <p>
+ * Every journal record has a sequence number, and the flush writes the number of the last record it covers to
+ * the {@code inventory_checkpoint} table in the same transaction as the stock changes. The sale of an order is
+ * journaled, with the id of the order, before the order is committed, and an order whose sale cannot be
+ * journaled is not committed. When the engine is {@linkplain #open opened}, the records after the checkpoint,
+ * left over by a crash, are applied once before anything else; the sales of orders that were never committed
+ * are skipped. The journal is written to the operating system on every record, so it survives a crash of
+ * the application; set {@code inventory.syncJournal} to also force it to disk, which survives a power loss.
+ * <p>
+ * The counters of a product are loaded from the product table the first time it is ordered. Stock written to
+ * the product table by other means, such as the product window, the {@link OrderImporter} or the engine of
+ * another client, is picked up by the counters of a product whenever a flush writes it, or an order is about to
+ * be refused for lack of it: the quantity is read back from the table and the counters are corrected by the
+ * difference with what they expected. The flush never
+ * takes a quantity below zero; if other writers took the stock the engine sold, the product is set to zero and
+ * the oversold quantity is logged.
+ */
+public class InventoryEngine implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(InventoryEngine.class.getName());
+    private static final String SEGMENT_PREFIX = "inventory-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String ORDER_FIELD = "order:";
+    private static final Duration DEFAULT_FLUSH_PERIOD = Duration.ofSeconds(1);
+
+    private static InventoryEngine instance;
+    private static boolean instanceCreated;
+
+    private final Path journalDirectory;
+    private final ProductDAO productDAO;
+    private final InventoryCheckpointDAO checkpointDAO;
+    private final Order1DAO orderDAO;
+    private final boolean syncJournal;
+    private final Map<Integer, StockCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the journal segment and the sequence, so that a flush sees either all or none of a record.
+     */
+    private final Object journalLock = new Object();
+    private final List<Path> closedSegments = new ArrayList<>();
+    private FileChannel segment;
+    private long segmentStart;
+    private long sequence;
+
+    /**
+     * Held for reading by the orders between the journaling of their sale and the counting of it, once the order
+     * is committed, and for writing by the flush while it takes the changes to write, so that every record the
+     * flush covers is either counted or belongs to an order that failed.
+     */
+    private final ReentrantReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    /**
+     * Lets one flush run at a time.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private long checkpoint;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean open;
+
+    /**
+     * Constructs a new InventoryEngine keeping its journal in the given directory, using the default DAOs.
+     * The journal is forced to disk on every record if the {@code inventory.syncJournal} system property is true.
+     *
+     * @param journalDirectory The directory of the journal.
+     */
+    public InventoryEngine(Path journalDirectory) {
+        this(journalDirectory, new ProductDAO(), new InventoryCheckpointDAO(), new Order1DAO(),
+                Boolean.getBoolean("inventory.syncJournal"));
+    }
+
+    /**
+     * Constructs a new InventoryEngine keeping its journal in the given directory, using the given DAOs.
+     *
+     * @param journalDirectory The directory of the journal.
+     * @param productDAO       The DAO the stock is read and written with.
+     * @param checkpointDAO    The DAO the journal checkpoint is read and written with.
+     * @param orderDAO         The DAO the orders of journaled sales are looked up with on recovery.
+     * @param syncJournal      True to force the journal to disk on every record.
+     */
+    public InventoryEngine(Path journalDirectory, ProductDAO productDAO, InventoryCheckpointDAO checkpointDAO,
+                           Order1DAO orderDAO, boolean syncJournal) {
+        this.journalDirectory = journalDirectory;
+        this.productDAO = productDAO;
+        this.checkpointDAO = checkpointDAO;
+        this.orderDAO = orderDAO;
+        this.syncJournal = syncJournal;
+    }
+
+    /**
+     * Gets the engine shared by the application, if the {@code inventory.enabled} system property is true.
+     * The engine is opened on first use, with its journal in the directory named by {@code inventory.journalDir}
+     * ({@code inventory} by default), and flushed every {@code inventory.flushMillis} milliseconds (1000 by
+     * default) and when the application exits.
+     *
+     * @return The shared engine, or null if it is not enabled or could not be opened.
+     */
+    public static synchronized InventoryEngine getInstance() {
+        if (!instanceCreated) {
+            instanceCreated = true;
+            if (Boolean.getBoolean("inventory.enabled")) {
+                InventoryEngine engine = new InventoryEngine(Paths.get(System.getProperty("inventory.journalDir", "inventory")));
+                try {
+                    engine.open();
+                    engine.start(Duration.ofMillis(Long.getLong("inventory.flushMillis", DEFAULT_FLUSH_PERIOD.toMillis())));
+                    Runtime.getRuntime().addShutdownHook(new Thread(engine::close, "inventory-shutdown"));
+                    instance = engine;
+                } catch (IOException | SQLException e) {
+                    LOGGER.log(Level.SEVERE, "InventoryEngine:open " + e.getMessage());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the engine: applies the journal records left over by an earlier run to the product table,
+     * then starts a new journal.
+     *
+     * @throws IOException  If the journal cannot be read or created.
+     * @throws SQLException If the left-over records cannot be applied; the journal is then kept as it is.
+     */
+    public void open() throws IOException, SQLException {
+        Files.createDirectories(journalDirectory);
+        long lastSequence;
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            lastSequence = checkpointDAO.getLastSequence(connection);
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+
+        List<Path> segments = listSegments();
+        Map<Integer, Integer> deltas = new HashMap<>();
+        Map<Integer, Map<Integer, Integer>> sales = new HashMap<>();
+        long recovered = lastSequence;
+        for (Path path : segments) {
+            recovered = Math.max(recovered, readSegment(path, lastSequence, deltas, sales));
+        }
+        addCommittedSales(sales, deltas);
+        if (recovered > lastSequence) {
+            writeDeltas(deltas, recovered);
+            LOGGER.log(Level.INFO, "InventoryEngine:open applied journal records " + (lastSequence + 1)
+                    + " to " + recovered + " for " + deltas.size() + " products");
+        }
+        for (Path path : segments) {
+            Files.delete(path);
+        }
+
+        synchronized (journalLock) {
+            sequence = recovered;
+            segment = openSegment(recovered + 1);
+            segmentStart = recovered + 1;
+        }
+        checkpoint = recovered;
+        open = true;
+    }
+
+    /**
+     * Starts flushing the stock changes periodically on a background thread.
+     *
+     * @param period The time between the end of a flush and the start of the next.
+     */
+    public synchronized void start(Duration period) {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, period.toMillis());
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "InventoryEngine:flush " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reserves the quantities of an order: either every quantity is taken out of the available stock,
+     * or none is.
+     *
+     * @param quantities The quantity to reserve by product id; quantities must be positive.
+     * @return The reservation, to be committed once the order is stored or released otherwise.
+     * @throws OutOfStockException If a product does not exist or does not have enough stock available.
+     */
+    public Reservation reserve(Map<Integer, Integer> quantities) throws OutOfStockException {
+        checkOpen();
+        Map<Integer, Integer> ordered = new TreeMap<>(quantities);
+        Map<Integer, StockCounter> tracked = counters(ordered.keySet());
+        List<Integer> outOfStock = tryReserve(ordered, tracked);
+        if (!outOfStock.isEmpty()) {
+            refresh(outOfStock);
+            outOfStock = tryReserve(ordered, tracked);
+        }
+        if (!outOfStock.isEmpty()) {
+            throw new OutOfStockException(outOfStock);
+        }
+        return new Reservation(ordered);
+    }
+
+    /**
+     * Reserves every quantity of an order, or none.
+     *
+     * @param ordered The quantity to reserve by product id.
+     * @param tracked The counters of the products.
+     * @return The products that did not have enough stock, empty if every quantity was reserved.
+     */
+    private List<Integer> tryReserve(Map<Integer, Integer> ordered, Map<Integer, StockCounter> tracked) {
+        List<Integer> outOfStock = new ArrayList<>();
+        List<Integer> reserved = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : ordered.entrySet()) {
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity " + entry.getValue() + " for product " + entry.getKey());
+            }
+            StockCounter counter = tracked.get(entry.getKey());
+            if (counter != null && counter.tryReserve(entry.getValue())) {
+                reserved.add(entry.getKey());
+            } else {
+                outOfStock.add(entry.getKey());
+            }
+        }
+        if (!outOfStock.isEmpty()) {
+            for (Integer productId : reserved) {
+                tracked.get(productId).cancel(ordered.get(productId));
+            }
+        }
+        return outOfStock;
+    }
+
+    /**
+     * Corrects the counters of products by the stock other writers changed in the product table since the
+     * last flush, such as a restock from the product window. This is done before an order is refused, since
+     * a product the engine has sold out is not flushed, which is otherwise when the counters catch up.
+     *
+     * @param productIds The ids of the products.
+     */
+    private void refresh(Collection<Integer> productIds) {
+        flushLock.lock();
+        try {
+            for (Product product : productDAO.findByIds(productIds)) {
+                StockCounter counter = counters.get(product.getId());
+                if (counter != null) {
+                    counter.flushed(0, product.getQuantity());
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Turns a reservation into the sale of an order, together with the commit of the order: the sale is
+     * journaled with the id of the order, the order is committed, and the reserved quantities are then taken
+     * out of the product table by the next flush. A crash at any point either keeps both the order and its
+     * sale or neither, since the sale of an order that was not committed is skipped on recovery.
+     * If the journal cannot be written or the order cannot be committed, the reservation is released.
+     *
+     * @param reservation The reservation, which must not be committed or released yet.
+     * @param orderId     The id of the order, inserted but not committed yet.
+     * @param orderCommit Commits the order.
+     * @throws IOException           If the sale cannot be journaled; the order is then not committed.
+     * @throws SQLException          If the order cannot be committed.
+     * @throws IllegalStateException If the reservation was already committed or released.
+     */
+    public void commit(Reservation reservation, int orderId, OrderCommit orderCommit) throws IOException, SQLException {
+        reservation.settle();
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : reservation.quantities.entrySet()) {
+            deltas.put(entry.getKey(), -entry.getValue());
+        }
+        boolean sold = false;
+        pendingLock.readLock().lock();
+        try {
+            synchronized (journalLock) {
+                append(deltas, orderId);
+            }
+            orderCommit.commit();
+            for (Map.Entry<Integer, Integer> entry : reservation.quantities.entrySet()) {
+                counters.get(entry.getKey()).sell(entry.getValue());
+            }
+            sold = true;
+        } finally {
+            pendingLock.readLock().unlock();
+            if (!sold) {
+                for (Map.Entry<Integer, Integer> entry : reservation.quantities.entrySet()) {
+                    counters.get(entry.getKey()).cancel(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the quantities of a reservation back to the available stock.
+     *
+     * @param reservation The reservation, which must not be committed or released yet.
+     * @throws IllegalStateException If the reservation was already committed or released.
+     */
+    public void release(Reservation reservation) {
+        reservation.settle();
+        for (Map.Entry<Integer, Integer> entry : reservation.quantities.entrySet()) {
+            counters.get(entry.getKey()).cancel(entry.getValue());
+        }
+    }
+
+    /**
+     * Adds stock to a product. The addition is available at once and written to the product table
+     * by the next flush.
+     *
+     * @param productId The id of the product.
+     * @param quantity  The quantity to add, positive.
+     * @return True if the stock was added, false if the product does not exist.
+     * @throws IOException If the restock cannot be journaled; the stock is then not added.
+     */
+    public boolean restock(int productId, int quantity) throws IOException {
+        checkOpen();
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Invalid quantity " + quantity + " for product " + productId);
+        }
+        StockCounter counter = counters(List.of(productId)).get(productId);
+        if (counter == null) {
+            return false;
+        }
+        synchronized (journalLock) {
+            append(Map.of(productId, quantity), 0);
+            counter.restock(quantity);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the stock of a product that can still be reserved.
+     *
+     * @param productId The id of the product.
+     * @return The available quantity, or 0 if the product does not exist.
+     */
+    public int getAvailable(int productId) {
+        StockCounter counter = counters(List.of(productId)).get(productId);
+        return counter != null ? Math.max(0, counter.available.get()) : 0;
+    }
+
+    /**
+     * Gets the stock of a product held by reservations that are neither committed nor released.
+     *
+     * @param productId The id of the product.
+     * @return The reserved quantity, or 0 if the product is not tracked.
+     */
+    public int getReserved(int productId) {
+        StockCounter counter = counters.get(productId);
+        return counter != null ? counter.reserved.get() : 0;
+    }
+
+    /**
+     * Writes the stock changes journaled since the last flush to the product table, in one transaction
+     * with the journal checkpoint. If the write fails, the changes are kept for the next flush.
+     *
+     * @return True if every journaled change is in the product table, false if the write failed.
+     */
+    public boolean flush() {
+        flushLock.lock();
+        try {
+            long upTo;
+            Map<Integer, Integer> deltas = new HashMap<>();
+            List<Path> segments;
+            pendingLock.writeLock().lock();
+            try {
+                synchronized (journalLock) {
+                    if (segment == null || sequence == checkpoint) {
+                        return true;
+                    }
+                    upTo = sequence;
+                    for (Map.Entry<Integer, StockCounter> entry : counters.entrySet()) {
+                        int delta = entry.getValue().unflushed.getAndSet(0);
+                        if (delta != 0) {
+                            deltas.put(entry.getKey(), delta);
+                        }
+                    }
+                    rotateSegment(upTo + 1);
+                    segments = new ArrayList<>(closedSegments);
+                }
+            } finally {
+                pendingLock.writeLock().unlock();
+            }
+
+            try {
+                Map<Integer, Integer> quantities = writeDeltas(deltas, upTo);
+                for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                    counters.get(entry.getKey()).flushed(entry.getValue(), quantities.get(entry.getKey()));
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "InventoryEngine:flush " + e.getMessage());
+                if (!isCheckpointed(upTo)) {
+                    for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                        counters.get(entry.getKey()).unflushed.addAndGet(entry.getValue());
+                    }
+                    return false;
+                }
+                for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                    counters.get(entry.getKey()).flushed(entry.getValue(), null);
+                }
+            }
+            checkpoint = upTo;
+            synchronized (journalLock) {
+                closedSegments.removeAll(segments);
+            }
+            for (Path path : segments) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "InventoryEngine:flush " + e.getMessage());
+                }
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the periodic flush, flushes the last stock changes and closes the journal. Changes that cannot
+     * be flushed stay in the journal and are applied when the engine is next opened.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (flusher != null) {
+                flusher.shutdown();
+                try {
+                    flusher.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                flusher = null;
+            }
+        }
+        if (!open) {
+            return;
+        }
+        flush();
+        open = false;
+        synchronized (journalLock) {
+            closeQuietly(segment);
+            segment = null;
+        }
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("The inventory engine is not open");
+        }
+    }
+
+    /**
+     * Gets the counters of products, loading the ones not tracked yet with one query.
+     *
+     * @param productIds The ids of the products.
+     * @return The counters by product id; products that do not exist are missing.
+     */
+    private Map<Integer, StockCounter> counters(Collection<Integer> productIds) {
+        Map<Integer, StockCounter> tracked = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer productId : productIds) {
+            StockCounter counter = counters.get(productId);
+            if (counter != null) {
+                tracked.put(productId, counter);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Product product : productDAO.findByIds(missing)) {
+                tracked.put(product.getId(), counters.computeIfAbsent(product.getId(),
+                        id -> new StockCounter(product.getQuantity())));
+            }
+        }
+        return tracked;
+    }
+
+    /**
+     * Appends a record to the journal. Must be called while holding the journal lock.
+     *
+     * @param deltas  The stock changes by product id.
+     * @param orderId The id of the order whose sale the record is, or 0 for a restock.
+     * @throws IOException If the record cannot be written; its sequence number is then not used.
+     */
+    private void append(Map<Integer, Integer> deltas, int orderId) throws IOException {
+        long recordSequence = sequence + 1;
+        StringBuilder sb = new StringBuilder(40 + 16 * deltas.size());
+        sb.append(recordSequence);
+        if (orderId != 0) {
+            sb.append(' ').append(ORDER_FIELD).append(orderId);
+        }
+        for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+            sb.append(' ').append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        sb.append('\n');
+        ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII));
+        long size = -1;
+        try {
+            size = segment.size();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            if (syncJournal) {
+                segment.force(false);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "InventoryEngine:append record " + recordSequence + " " + e.getMessage());
+            if (size >= 0) {
+                try {
+                    segment.truncate(size);
+                } catch (IOException truncateError) {
+                    LOGGER.log(Level.SEVERE, "InventoryEngine:append truncate " + truncateError.getMessage());
+                }
+            }
+            throw e;
+        }
+        sequence = recordSequence;
+    }
+
+    /**
+     * Writes stock changes and the checkpoint in one transaction, then drops the changed products from the
+     * product cache. They are dropped after a failure too, since a failed commit may have been applied.
+     * Changes that would take a quantity below zero set it to zero, and the oversold quantity is logged.
+     *
+     * @param deltas       The stock changes by product id.
+     * @param lastSequence The sequence number of the last journal record the changes cover.
+     * @return The quantities of the changed products once written, by product id.
+     * @throws SQLException If the transaction fails; it is then rolled back.
+     */
+    private Map<Integer, Integer> writeDeltas(Map<Integer, Integer> deltas, long lastSequence) throws SQLException {
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            Map<Integer, Integer> shortfalls = productDAO.applyStockDeltas(connection, deltas);
+            checkpointDAO.setLastSequence(connection, lastSequence);
+            Map<Integer, Integer> quantities = new HashMap<>();
+            if (!deltas.isEmpty()) {
+                for (Product product : productDAO.findByIds(connection, deltas.keySet())) {
+                    quantities.put(product.getId(), product.getQuantity());
+                }
+            }
+            connection.commit();
+            for (Map.Entry<Integer, Integer> entry : shortfalls.entrySet()) {
+                LOGGER.log(Level.SEVERE, "InventoryEngine:flush product " + entry.getKey() + " oversold by "
+                        + entry.getValue() + ", its stock was taken by another writer; set to 0");
+            }
+            return quantities;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw e;
+        } finally {
+            ConnectionFactory.close(connection);
+            productDAO.invalidateCached(deltas.keySet());
+        }
+    }
+
+    /**
+     * Tells whether a flush that reported a failure was committed after all, which happens when the
+     * connection is lost while the commit is acknowledged.
+     *
+     * @param lastSequence The sequence number the flush wrote as checkpoint.
+     * @return True if the checkpoint is at least the given sequence number.
+     */
+    private boolean isCheckpointed(long lastSequence) {
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            return checkpointDAO.getLastSequence(connection) >= lastSequence;
+        } catch (SQLException e) {
+            return false;
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "InventoryEngine:rollback " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts a new journal segment, so that the current one can be deleted once its records are flushed.
+     * If the new segment cannot be created, the current one is kept; it is then deleted when the engine
+     * is next opened. Must be called while holding the journal lock.
+     *
+     * @param firstSequence The sequence number of the first record of the new segment.
+     */
+    private void rotateSegment(long firstSequence) {
+        FileChannel next;
+        try {
+            next = openSegment(firstSequence);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "InventoryEngine:rotate " + e.getMessage());
+            return;
+        }
+        closeQuietly(segment);
+        closedSegments.add(segmentPath(segmentStart));
+        segment = next;
+        segmentStart = firstSequence;
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        return FileChannel.open(segmentPath(firstSequence), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return journalDirectory.resolve(SEGMENT_PREFIX + String.format("%019d", firstSequence) + SEGMENT_SUFFIX);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDirectory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Adds up the stock changes of the records of a journal segment that come after the checkpoint.
+     * A record cut short by a crash is skipped.
+     *
+     * @param path         The segment.
+     * @param lastSequence The checkpoint.
+     * @param deltas       The stock changes of restocks by product id, added to.
+     * @param sales        The stock changes of sales by order id, added to; they are only applied if the order
+     *                     was committed.
+     * @return The highest sequence number read, or 0 if the segment has no records.
+     * @throws IOException If the segment cannot be read.
+     */
+    private static long readSegment(Path path, long lastSequence, Map<Integer, Integer> deltas,
+                                    Map<Integer, Map<Integer, Integer>> sales) throws IOException {
+        long highest = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                try {
+                    long recordSequence = Long.parseLong(fields[0]);
+                    int orderId = 0;
+                    int first = 1;
+                    if (fields.length > 1 && fields[1].startsWith(ORDER_FIELD)) {
+                        orderId = Integer.parseInt(fields[1].substring(ORDER_FIELD.length()));
+                        first = 2;
+                    }
+                    Map<Integer, Integer> record = new HashMap<>();
+                    for (int i = first; i < fields.length; i++) {
+                        int colon = fields[i].indexOf(':');
+                        record.put(Integer.parseInt(fields[i].substring(0, colon)),
+                                Integer.parseInt(fields[i].substring(colon + 1)));
+                    }
+                    if (record.isEmpty()) {
+                        throw new NumberFormatException("no stock change");
+                    }
+                    if (recordSequence > lastSequence) {
+                        Map<Integer, Integer> target = orderId != 0 ? sales.computeIfAbsent(orderId, id -> new HashMap<>()) : deltas;
+                        record.forEach((productId, delta) -> target.merge(productId, delta, Integer::sum));
+                    }
+                    highest = Math.max(highest, recordSequence);
+                } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                    LOGGER.log(Level.WARNING, "InventoryEngine:open skipped a damaged record in " + path.getFileName()
+                            + ": " + line);
+                }
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Adds the journaled sales of the orders that were committed to the stock changes to recover, skipping
+     * the sales of orders whose commit failed or was cut short by a crash.
+     *
+     * @param sales  The stock changes of sales by order id.
+     * @param deltas The stock changes by product id, added to.
+     * @throws SQLException If the orders cannot be read.
+     */
+    private void addCommittedSales(Map<Integer, Map<Integer, Integer>> sales, Map<Integer, Integer> deltas)
+            throws SQLException {
+        if (sales.isEmpty()) {
+            return;
+        }
+        Set<Integer> committed = new HashSet<>();
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            for (Order1 order : orderDAO.findByIds(connection, sales.keySet())) {
+                committed.add(order.getId());
+            }
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        for (Map.Entry<Integer, Map<Integer, Integer>> sale : sales.entrySet()) {
+            if (committed.contains(sale.getKey())) {
+                sale.getValue().forEach((productId, delta) -> deltas.merge(productId, delta, Integer::sum));
+            } else {
+                LOGGER.log(Level.INFO, "InventoryEngine:open skipped the sale of order " + sale.getKey()
+                        + ", which was not committed");
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "InventoryEngine:close " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Commits an order whose sale was journaled, on the connection the order was written on.
+     */
+    @FunctionalInterface
+    public interface OrderCommit {
+
+        /**
+         * Commits the order.
+         *
+         * @throws SQLException If the commit fails.
+         */
+        void commit() throws SQLException;
+    }
+
+    /**
+     * The quantities reserved for one order, until the order is stored or abandoned.
+     */
+    public static final class Reservation {
+        private final Map<Integer, Integer> quantities;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(Map<Integer, Integer> quantities) {
+            this.quantities = Collections.unmodifiableMap(quantities);
+        }
+
+        /**
+         * Gets the reserved quantities.
+         *
+         * @return The reserved quantity by product id.
+         */
+        public Map<Integer, Integer> getQuantities() {
+            return quantities;
+        }
+
+        private void settle() {
+            if (!settled.compareAndSet(false, true)) {
+                throw new IllegalStateException("The reservation was already committed or released");
+            }
+        }
+    }
+
+    /**
+     * The stock counters of one product.
+     */
+    private static final class StockCounter {
+        private final AtomicInteger available;
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger unflushed = new AtomicInteger();
+        private final AtomicInteger stored;
+
+        private StockCounter(int quantity) {
+            this.available = new AtomicInteger(quantity);
+            this.stored = new AtomicInteger(quantity);
+        }
+
+        /**
+         * Records that a stock change was written, correcting the available stock by what other writers
+         * changed in the product table since the last flush.
+         *
+         * @param delta    The change written.
+         * @param quantity The quantity read back from the table, or null if it is unknown.
+         */
+        private void flushed(int delta, Integer quantity) {
+            int expected = stored.addAndGet(delta);
+            if (quantity != null && quantity != expected) {
+                available.addAndGet(quantity - expected);
+                stored.set(quantity);
+            }
+        }
+
+        private boolean tryReserve(int quantity) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            reserved.addAndGet(quantity);
+            return true;
+        }
+
+        private void cancel(int quantity) {
+            reserved.addAndGet(-quantity);
+            available.addAndGet(quantity);
+        }
+
+        private void sell(int quantity) {
+            reserved.addAndGet(-quantity);
+            unflushed.addAndGet(-quantity);
+        }
+
+        private void restock(int quantity) {
+            available.addAndGet(quantity);
+            unflushed.addAndGet(quantity);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package BLL;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * OrderFileReader reads the lines of an order file one at a time, so that files of any size are read in
+ * constant memory. A file holds one ordered product per line, either as CSV with a header row or as
+ * NDJSON with one flat JSON object per line, chosen by the file extension. The fields are:
+ * <ul>
+ *     <li>{@code order_ref}: the partner's reference of the order; consecutive lines with the same reference
+ *     form one order,</li>
+ *     <li>{@code client_id}, {@code product_id} and {@code quantity}: the ordered product,</li>
+ *     <li>{@code order_date} and {@code description}: optional, taken from the first line of an order.</li>
+ * </ul>
+ * A line that cannot be parsed is returned with the reason instead of failing the whole file, and with its
+ * order reference whenever that could be read, so that the rest of its order can be rejected too.
+ */
+final class OrderFileReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final List<String> REQUIRED_FIELDS = List.of("order_ref", "client_id", "product_id", "quantity");
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private List<String> header;
+    private long lineNumber;
+
+    /**
+     * Opens an order file.
+     *
+     * @param path The file, ending in .csv, or in .ndjson or .jsonl.
+     * @throws IOException If the file cannot be opened, its format is unknown or its CSV header lacks a field.
+     */
+    OrderFileReader(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            csv = true;
+        } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            csv = false;
+        } else {
+            throw new IOException("Unknown order file format, expected .csv, .ndjson or .jsonl: " + path);
+        }
+        reader = new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (csv) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Reads the next non-blank line.
+     *
+     * @return The line, or null at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    Line next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            lineNumber++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+        Map<String, String> fields;
+        try {
+            fields = csv ? csvFields(text) : jsonFields(text);
+        } catch (IllegalArgumentException e) {
+            return new Line(lineNumber, null, 0, 0, 0, null, null, e.getMessage());
+        }
+        String orderRef = fields.get("order_ref");
+        if (orderRef == null || orderRef.isBlank()) {
+            return new Line(lineNumber, null, 0, 0, 0, null, null, "Missing order_ref");
+        }
+        try {
+            return toLine(orderRef.trim(), fields);
+        } catch (IllegalArgumentException e) {
+            return new Line(lineNumber, orderRef.trim(), 0, 0, 0, null, null, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String text = reader.readLine();
+        lineNumber++;
+        if (text == null) {
+            throw new IOException("The order file is empty");
+        }
+        header = new ArrayList<>();
+        for (String column : splitCsv(text)) {
+            header.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        for (String field : REQUIRED_FIELDS) {
+            if (!header.contains(field)) {
+                throw new IOException("The order file header has no " + field + " column");
+            }
+        }
+    }
+
+    /**
+     * Converts the fields of a line into an order line.
+     *
+     * @param orderRef The order reference of the line, already read.
+     * @param fields   The field values by name.
+     * @return The order line.
+     * @throws IllegalArgumentException If a required field is missing or a value is malformed.
+     */
+    private Line toLine(String orderRef, Map<String, String> fields) {
+        int clientId = positiveInt(fields, "client_id");
+        int productId = positiveInt(fields, "product_id");
+        int quantity = positiveInt(fields, "quantity");
+        String date = fields.get("order_date");
+        Timestamp orderDate = date == null || date.isBlank() ? null : timestamp(date.trim());
+        return new Line(lineNumber, orderRef, clientId, productId, quantity, orderDate,
+                fields.get("description"), null);
+    }
+
+    private static int positiveInt(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid " + name + ": " + value);
+    }
+
+    private static Timestamp timestamp(String value) {
+        try {
+            if (value.length() <= 10) {
+                return Timestamp.valueOf(LocalDate.parse(value).atStartOfDay());
+            }
+            return Timestamp.valueOf(LocalDateTime.parse(value.replace(' ', 'T')));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid order_date: " + value);
+        }
+    }
+
+    private Map<String, String> csvFields(String text) {
+        List<String> values = splitCsv(text);
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Splits a CSV line into its fields. Fields may be quoted with double quotes, in which case they may
+     * contain commas and doubled quotes; fields spanning several lines are not supported.
+     *
+     * @param text The line.
+     * @return The field values.
+     * @throws IllegalArgumentException If a quoted field is not closed.
+     */
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Parses a flat JSON object whose values are strings, numbers, booleans or null.
+     *
+     * @param text The line.
+     * @return The values by key, as text; JSON null is kept as null.
+     * @throws IllegalArgumentException If the line is not such an object.
+     */
+    private static Map<String, String> jsonFields(String text) {
+        JsonCursor cursor = new JsonCursor(text);
+        Map<String, String> fields = new HashMap<>();
+        cursor.expect('{');
+        if (!cursor.consume('}')) {
+            do {
+                String key = cursor.string();
+                cursor.expect(':');
+                fields.put(key, cursor.value());
+            } while (cursor.consume(','));
+            cursor.expect('}');
+        }
+        cursor.end();
+        return fields;
+    }
+
+    /**
+     * One line of an order file.
+     *
+     * @param number      The line number in the file, starting at 1.
+     * @param orderRef    The partner's reference of the order, or null if it could not be read.
+     * @param clientId    The ID of the client.
+     * @param productId   The ID of the ordered product.
+     * @param quantity    The ordered quantity.
+     * @param orderDate   The date of the order, or null if not given.
+     * @param description The description of the order, or null if not given.
+     * @param error       Why the line could not be parsed, or null if it was parsed.
+     */
+    record Line(long number, String orderRef, int clientId, int productId, int quantity, Timestamp orderDate,
+                String description, String error) {
+    }
+
+    /**
+     * A position in a JSON line.
+     */
+    private static final class JsonCursor {
+        private final String text;
+        private int position;
+
+        private JsonCursor(String text) {
+            this.text = text;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Invalid JSON: expected '" + c + "' at column " + (position + 1));
+            }
+        }
+
+        private void end() {
+            skipWhitespace();
+            if (position < text.length()) {
+                throw new IllegalArgumentException("Invalid JSON: unexpected text at column " + (position + 1));
+            }
+        }
+
+        private String value() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Invalid JSON: missing value");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Nested JSON values are not supported");
+            }
+            int start = position;
+            while (position < text.length() && ",}".indexOf(text.charAt(position)) < 0
+                    && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Invalid JSON: missing value at column " + (start + 1));
+            }
+            return literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException("Invalid JSON: truncated \\u escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Invalid JSON: bad \\u escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("Invalid JSON: unterminated string");
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package BLL;
+
+import DB.AsyncDAO;
+import DB.ClientDAO;
+import DB.ConnectionFactory;
+import DB.Order1DAO;
+import DB.OrderItemDAO;
+import DB.ProductDAO;
+import model.Client;
+import model.Order1;
+import model.OrderItem;
+import model.Product;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * OrderImporter places the orders of partner files without anyone typing them in, headless.
+ * The file is read line by line by an {@link OrderFileReader} and cut into chunks of whole orders. Each chunk
+ * is validated and written on a background thread through {@link AsyncDAO#submit}, so several chunks are in
+ * the database at the same time, up to the size of the connection pool, while the next ones are being read.
+ * Only a bounded number of chunks is held in memory, so files of any size are imported in constant memory.
+ * <p>
+ * A chunk is validated with one query for its clients and one for its products, which rejects the orders of
+ * unknown clients or products and the orders asking for more than the product has in stock. The remaining
+ * orders of the chunk are then written in one transaction: the stock of every product is decremented in
+ * one batch, the orders are inserted in one batch and their lines in another. If the stock runs out in the
+ * meantime or the transaction fails, it is rolled back and the orders of the chunk are placed one at a time
+ * through the {@link OrderService}, so that only the orders at fault are rejected.
+ * <p>
+ * Every rejected line is written to a CSV reject file, with its line number, its order reference and
+ * the reason. When an order is rejected, all of its lines are.
+ */
+public class OrderImporter {
+    private static final Logger LOGGER = Logger.getLogger(OrderImporter.class.getName());
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int MAX_ORDER_LINES = 1000;
+
+    private final Order1DAO orderDAO;
+    private final OrderItemDAO orderItemDAO;
+    private final ProductDAO productDAO;
+    private final ClientDAO clientDAO;
+    private final OrderService orderService;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int maxChunksInFlight = 2 * ConnectionFactory.getPool().getMaxSize();
+
+    /**
+     * Constructs a new OrderImporter using the default DAOs.
+     */
+    public OrderImporter() {
+        this(new Order1DAO(), new OrderItemDAO(), new ProductDAO(), new ClientDAO());
+    }
+
+    /**
+     * Constructs a new OrderImporter using the given DAOs.
+     *
+     * @param orderDAO     The DAO the orders are inserted with.
+     * @param orderItemDAO The DAO the order lines are inserted with.
+     * @param productDAO   The DAO the products are validated and their stock decremented with.
+     * @param clientDAO    The DAO the clients are validated with.
+     */
+    public OrderImporter(Order1DAO orderDAO, OrderItemDAO orderItemDAO, ProductDAO productDAO, ClientDAO clientDAO) {
+        this.orderDAO = orderDAO;
+        this.orderItemDAO = orderItemDAO;
+        this.productDAO = productDAO;
+        this.clientDAO = clientDAO;
+        this.orderService = new OrderService(orderDAO, orderItemDAO, productDAO);
+    }
+
+    /**
+     * Gets the number of lines after which a chunk is closed, at the end of the current order.
+     *
+     * @return The chunk size in lines.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the number of lines after which a chunk is closed, at the end of the current order.
+     * Each chunk is written in one transaction.
+     *
+     * @param chunkSize The chunk size in lines, at least 1.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the number of chunks that are read ahead of the database, waiting or being written.
+     *
+     * @return The maximum number of chunks in flight.
+     */
+    public int getMaxChunksInFlight() {
+        return maxChunksInFlight;
+    }
+
+    /**
+     * Sets the number of chunks that are read ahead of the database, waiting or being written.
+     * Together with the chunk size, this bounds the memory used by an import.
+     *
+     * @param maxChunksInFlight The maximum number of chunks in flight, at least 1.
+     */
+    public void setMaxChunksInFlight(int maxChunksInFlight) {
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Chunks in flight must be at least 1");
+        }
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Imports the orders of a file. Consecutive lines with the same order reference form one order;
+     * an order of more than {@value #MAX_ORDER_LINES} lines is rejected.
+     *
+     * @param input      The order file, in CSV or NDJSON (see {@link OrderFileReader}).
+     * @param rejectFile The CSV file the rejected lines are written to; it is replaced if it exists.
+     * @return The summary of the import.
+     * @throws IOException If the order file cannot be read or the reject file cannot be written.
+     */
+    public ImportReport importFile(Path input, Path rejectFile) throws IOException {
+        long start = System.nanoTime();
+        try (OrderFileReader reader = new OrderFileReader(input);
+             RejectWriter rejects = new RejectWriter(rejectFile)) {
+            ImportRun run = new ImportRun(rejects, maxChunksInFlight);
+            long lineCount = 0;
+            long orderCount = 0;
+            PendingOrder order = null;
+            List<PendingOrder> chunk = new ArrayList<>();
+            int chunkLines = 0;
+            try {
+                for (OrderFileReader.Line line = reader.next(); line != null; line = reader.next()) {
+                    lineCount++;
+                    if (line.orderRef() == null) {
+                        rejects.reject(line.number(), null, line.error());
+                        continue;
+                    }
+                    if (order == null || !order.ref.equals(line.orderRef())) {
+                        if (order != null && !order.rejected) {
+                            chunk.add(order);
+                            chunkLines += order.lines.size();
+                        }
+                        if (chunkLines >= chunkSize) {
+                            run.submit(chunk);
+                            chunk = new ArrayList<>();
+                            chunkLines = 0;
+                        }
+                        order = new PendingOrder(line.orderRef());
+                        orderCount++;
+                    }
+                    if (line.error() != null) {
+                        order.addInvalid(line, rejects);
+                    } else {
+                        order.add(line, rejects);
+                    }
+                }
+                if (order != null && !order.rejected) {
+                    chunk.add(order);
+                }
+                if (!chunk.isEmpty()) {
+                    run.submit(chunk);
+                }
+            } finally {
+                run.await();
+            }
+            return new ImportReport(lineCount, orderCount, run.importedOrders.sum(), run.importedLines.sum(),
+                    rejects.getCount(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Imports an order file from the command line.
+     *
+     * @param args The order file and, optionally, the reject file; by default the reject file is written
+     *             next to the order file.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: OrderImporter <orders.csv|orders.ndjson> [rejects.csv]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path rejectFile = args.length > 1 ? Paths.get(args[1]) : input.resolveSibling(input.getFileName() + ".rejects.csv");
+        try {
+            ImportReport report = new OrderImporter().importFile(input, rejectFile);
+            LOGGER.log(Level.INFO, report + ", rejected lines in " + rejectFile);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "OrderImporter:importFile " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The state of one import: the chunks in flight, the reject file and the imported counts.
+     */
+    private final class ImportRun {
+        private final RejectWriter rejects;
+        private final int maxChunksInFlight;
+        private final Semaphore inFlight;
+        private final LongAdder importedOrders = new LongAdder();
+        private final LongAdder importedLines = new LongAdder();
+
+        private ImportRun(RejectWriter rejects, int maxChunksInFlight) {
+            this.rejects = rejects;
+            this.maxChunksInFlight = maxChunksInFlight;
+            this.inFlight = new Semaphore(maxChunksInFlight);
+        }
+
+        /**
+         * Hands a chunk to a background thread, first waiting until fewer than the maximum number of
+         * chunks are in flight.
+         *
+         * @param chunk The orders of the chunk.
+         * @throws InterruptedIOException If the reading thread is interrupted while waiting.
+         */
+        private void submit(List<PendingOrder> chunk) throws InterruptedIOException {
+            acquire(1);
+            AsyncDAO.submit(() -> {
+                importChunk(chunk);
+                return null;
+            }).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    LOGGER.log(Level.WARNING, "OrderImporter:importChunk " + failure.getMessage());
+                    for (PendingOrder order : chunk) {
+                        if (!order.imported) {
+                            reject(order, "Import failed: " + failure.getMessage());
+                        }
+                    }
+                }
+                inFlight.release();
+            });
+        }
+
+        /**
+         * Waits until every submitted chunk has been written or rejected.
+         *
+         * @throws InterruptedIOException If the reading thread is interrupted while waiting.
+         */
+        private void await() throws InterruptedIOException {
+            acquire(maxChunksInFlight);
+            inFlight.release(maxChunksInFlight);
+        }
+
+        private void acquire(int permits) throws InterruptedIOException {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while importing orders");
+            }
+        }
+
+        /**
+         * Validates and writes a chunk, falling back to placing its orders one at a time if the chunk
+         * cannot be written as a whole.
+         *
+         * @param chunk The orders of the chunk.
+         */
+        private void importChunk(List<PendingOrder> chunk) {
+            for (PendingOrder order : writeChunk(chunk)) {
+                try {
+                    if (orderService.placeOrder(order.order, order.items) == null) {
+                        reject(order, "The order could not be written to the database");
+                    } else {
+                        imported(order);
+                    }
+                } catch (OutOfStockException e) {
+                    reject(order, "Not enough stock for products " + e.getProductIds());
+                }
+            }
+        }
+
+        /**
+         * Validates a chunk and writes its valid orders in one transaction.
+         *
+         * @param chunk The orders of the chunk.
+         * @return The valid orders that must be placed one at a time because the transaction was rolled back,
+         * empty if the chunk was written.
+         */
+        private List<PendingOrder> writeChunk(List<PendingOrder> chunk) {
+            Connection connection = null;
+            List<PendingOrder> valid = null;
+            try {
+                connection = ConnectionFactory.getConnection();
+                if (connection == null) {
+                    throw new SQLException("No database connection available");
+                }
+                valid = validate(connection, chunk);
+                if (valid.isEmpty()) {
+                    return valid;
+                }
+
+                connection.setAutoCommit(false);
+                Map<Integer, Integer> quantities = new HashMap<>();
+                List<Order1> orders = new ArrayList<>(valid.size());
+                for (PendingOrder order : valid) {
+                    for (OrderItem item : order.items) {
+                        quantities.merge(item.getproduct_id(), item.getQuantity(), Integer::sum);
+                    }
+                    orders.add(order.order);
+                }
+                if (!productDAO.decrementStock(connection, quantities).isEmpty()) {
+                    rollback(connection);
+                    return valid;
+                }
+                orderDAO.insertAll(connection, orders);
+                List<OrderItem> items = new ArrayList<>();
+                for (PendingOrder order : valid) {
+                    for (OrderItem item : order.items) {
+                        item.setorder_id(order.order.getId());
+                        items.add(item);
+                    }
+                }
+                orderItemDAO.insertAll(connection, items);
+                connection.commit();
+                productDAO.invalidateCached(quantities.keySet());
+                orderDAO.invalidateCachedList();
+                orderItemDAO.invalidateCachedList();
+                for (PendingOrder order : valid) {
+                    imported(order);
+                }
+                return List.of();
+            } catch (SQLException e) {
+                rollback(connection);
+                LOGGER.log(Level.WARNING, "OrderImporter:writeChunk " + e.getMessage());
+                if (valid == null) {
+                    for (PendingOrder order : chunk) {
+                        reject(order, "The order could not be validated: " + e.getMessage());
+                    }
+                    return List.of();
+                }
+                return valid;
+            } finally {
+                ConnectionFactory.close(connection);
+            }
+        }
+
+        /**
+         * Checks the clients, products and stock of the orders of a chunk, rejecting the orders that do not
+         * pass and building the order and its lines for the others.
+         *
+         * @param connection The connection to read on.
+         * @param chunk      The orders of the chunk.
+         * @return The valid orders.
+         * @throws SQLException If the clients or products cannot be read.
+         */
+        private List<PendingOrder> validate(Connection connection, List<PendingOrder> chunk) throws SQLException {
+            Set<Integer> clientIds = new HashSet<>();
+            Set<Integer> productIds = new HashSet<>();
+            for (PendingOrder order : chunk) {
+                for (OrderFileReader.Line line : order.lines) {
+                    clientIds.add(line.clientId());
+                    productIds.add(line.productId());
+                }
+            }
+            Set<Integer> clients = new HashSet<>();
+            for (Client client : clientDAO.findByIds(connection, clientIds)) {
+                clients.add(client.getId());
+            }
+            Map<Integer, Product> products = new HashMap<>();
+            for (Product product : productDAO.findByIds(connection, productIds)) {
+                products.put(product.getId(), product);
+            }
+
+            List<PendingOrder> valid = new ArrayList<>();
+            for (PendingOrder order : chunk) {
+                String reason = order.check(clients, products);
+                if (reason == null) {
+                    order.build(products);
+                    valid.add(order);
+                } else {
+                    reject(order, reason);
+                }
+            }
+            return valid;
+        }
+
+        private void imported(PendingOrder order) {
+            order.imported = true;
+            importedOrders.increment();
+            importedLines.add(order.lines.size());
+        }
+
+        private void reject(PendingOrder order, String reason) {
+            for (OrderFileReader.Line line : order.lines) {
+                rejects.reject(line.number(), order.ref, reason);
+            }
+        }
+
+        private void rollback(Connection connection) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "OrderImporter:rollback " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * The lines of one order read from the file, and the order built from them once they are validated.
+     */
+    private static final class PendingOrder {
+        private final String ref;
+        private final List<OrderFileReader.Line> lines = new ArrayList<>();
+        private boolean rejected;
+        private String rejectReason;
+        private Order1 order;
+        private List<OrderItem> items;
+        private volatile boolean imported;
+
+        private PendingOrder(String ref) {
+            this.ref = ref;
+        }
+
+        /**
+         * Adds a line to the order, rejecting the whole order if the line names another client than the
+         * first line or the order grows beyond {@value #MAX_ORDER_LINES} lines. The lines of a rejected order
+         * are written to the reject file right away, so that they are not kept in memory.
+         *
+         * @param line    The line.
+         * @param rejects The reject file.
+         */
+        private void add(OrderFileReader.Line line, RejectWriter rejects) {
+            if (rejected) {
+                rejects.reject(line.number(), ref, rejectReason);
+                return;
+            }
+            lines.add(line);
+            if (line.clientId() != lines.getFirst().clientId()) {
+                rejectAll("The lines of the order name different clients", rejects);
+            } else if (lines.size() > MAX_ORDER_LINES) {
+                rejectAll("The order has more than " + MAX_ORDER_LINES + " lines", rejects);
+            }
+        }
+
+        /**
+         * Rejects a line that could not be parsed, and with it the whole order.
+         *
+         * @param line    The line, with the reason it could not be parsed.
+         * @param rejects The reject file.
+         */
+        private void addInvalid(OrderFileReader.Line line, RejectWriter rejects) {
+            rejects.reject(line.number(), ref, line.error());
+            if (!rejected) {
+                rejectAll("Line " + line.number() + " of the order is invalid", rejects);
+            }
+        }
+
+        private void rejectAll(String reason, RejectWriter rejects) {
+            for (OrderFileReader.Line line : lines) {
+                rejects.reject(line.number(), ref, reason);
+            }
+            lines.clear();
+            rejected = true;
+            rejectReason = reason;
+        }
+
+        /**
+         * Checks the client, the products and the stock of the order against the rows read for its chunk.
+         * The stock is checked again when it is decremented, which is what guarantees it.
+         *
+         * @param clients  The ids of the clients that exist.
+         * @param products The products that exist, by id.
+         * @return Why the order is rejected, or null if it is valid.
+         */
+        private String check(Set<Integer> clients, Map<Integer, Product> products) {
+            int clientId = lines.getFirst().clientId();
+            if (!clients.contains(clientId)) {
+                return "Unknown client " + clientId;
+            }
+            Map<Integer, Integer> quantities = new HashMap<>();
+            for (OrderFileReader.Line line : lines) {
+                if (!products.containsKey(line.productId())) {
+                    return "Unknown product " + line.productId();
+                }
+                quantities.merge(line.productId(), line.quantity(), Integer::sum);
+            }
+            for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+                if (entry.getValue() > products.get(entry.getKey()).getQuantity()) {
+                    return "Not enough stock for product " + entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Builds the order and its lines, priced at the current price of each product.
+         *
+         * @param products The products of the chunk, by id.
+         */
+        private void build(Map<Integer, Product> products) {
+            OrderFileReader.Line first = lines.getFirst();
+            Timestamp orderDate = first.orderDate() != null ? first.orderDate() : new Timestamp(System.currentTimeMillis());
+            String description = first.description() != null ? first.description() : "Imported order " + ref;
+            order = new Order1(first.clientId(), orderDate, description);
+            items = new ArrayList<>(lines.size());
+            for (OrderFileReader.Line line : lines) {
+                items.add(new OrderItem(line.productId(), line.quantity(), products.get(line.productId()).getPrice()));
+            }
+        }
+    }
+
+    /**
+     * Writes rejected lines to a CSV file, from the reading thread and the chunk threads alike.
+     * A failure to write is kept and thrown when the file is closed, so that it does not abort a chunk.
+     */
+    private static final class RejectWriter implements Closeable {
+        private final BufferedWriter writer;
+        private long count;
+        private IOException failure;
+
+        private RejectWriter(Path path) throws IOException {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write("line,order_ref,reason");
+            writer.newLine();
+        }
+
+        private synchronized void reject(long lineNumber, String orderRef, String reason) {
+            count++;
+            if (failure != null) {
+                return;
+            }
+            try {
+                writer.write(lineNumber + "," + quote(orderRef) + "," + quote(reason));
+                writer.newLine();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        private synchronized long getCount() {
+            return count;
+        }
+
+        private static String quote(String value) {
+            if (value == null) {
+                return "";
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
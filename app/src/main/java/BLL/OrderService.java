@@ -0,0 +1,178 @@
+package BLL;
+
+import DB.ConnectionFactory;
+import DB.Order1DAO;
+import DB.OrderItemDAO;
+import DB.ProductDAO;
+import model.Order1;
+import model.OrderItem;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * OrderService places orders. An order, its lines and the stock decrements of its products are written in one
+ * transaction on one connection: either the order and its lines are stored and every product is decremented,
+ * or, when a product runs out of stock or any statement fails, nothing is written.
+ * <p>
+ * When an {@link InventoryEngine} is given, the stock is reserved in memory instead, and the order and its
+ * lines are written without touching the product rows; the engine writes the stock changes in periodic batches.
+ */
+public class OrderService {
+    private static final Logger LOGGER = Logger.getLogger(OrderService.class.getName());
+
+    private final Order1DAO orderDAO;
+    private final OrderItemDAO orderItemDAO;
+    private final ProductDAO productDAO;
+    private final InventoryEngine inventory;
+
+    /**
+     * Constructs a new OrderService using the default DAOs, and the shared {@link InventoryEngine}
+     * if it is enabled.
+     */
+    public OrderService() {
+        this(new Order1DAO(), new OrderItemDAO(), new ProductDAO(), InventoryEngine.getInstance());
+    }
+
+    /**
+     * Constructs a new OrderService using the given DAOs.
+     *
+     * @param orderDAO     The DAO the orders are inserted with.
+     * @param orderItemDAO The DAO the order lines are inserted with.
+     * @param productDAO   The DAO the stock is decremented with.
+     */
+    public OrderService(Order1DAO orderDAO, OrderItemDAO orderItemDAO, ProductDAO productDAO) {
+        this(orderDAO, orderItemDAO, productDAO, null);
+    }
+
+    /**
+     * Constructs a new OrderService using the given DAOs and inventory engine.
+     *
+     * @param orderDAO     The DAO the orders are inserted with.
+     * @param orderItemDAO The DAO the order lines are inserted with.
+     * @param productDAO   The DAO the stock is decremented with when there is no inventory engine.
+     * @param inventory    The engine the stock is reserved with, or null to decrement the stock in the database.
+     */
+    public OrderService(Order1DAO orderDAO, OrderItemDAO orderItemDAO, ProductDAO productDAO,
+                        InventoryEngine inventory) {
+        this.orderDAO = orderDAO;
+        this.orderItemDAO = orderItemDAO;
+        this.productDAO = productDAO;
+        this.inventory = inventory;
+    }
+
+    /**
+     * Places an order with its lines, taking the ordered quantities out of stock in the same transaction.
+     * The stock is checked by the database when it is decremented, not from product objects held in memory,
+     * so concurrent orders of the same product can neither oversell nor lose each other's decrements.
+     * The lines are inserted in one batch once the order has its id. With an inventory engine, the stock is
+     * reserved in memory before the order is written, and taken out of the product table by the engine later.
+     *
+     * @param order The order to insert; its id is set once it is placed.
+     * @param items The lines of the order; lines with a zero quantity are dropped.
+     * @return The placed order, or null if it could not be written.
+     * @throws OutOfStockException If a product does not have enough stock; the order is then rolled back.
+     */
+    public Order1 placeOrder(Order1 order, List<OrderItem> items) throws OutOfStockException {
+        List<OrderItem> orderedItems = new ArrayList<>();
+        Map<Integer, Integer> orderedQuantities = new HashMap<>();
+        for (OrderItem item : items) {
+            if (item.getQuantity() > 0) {
+                orderedItems.add(item);
+                orderedQuantities.merge(item.getproduct_id(), item.getQuantity(), Integer::sum);
+            }
+        }
+
+        if (inventory != null) {
+            return placeReservedOrder(order, orderedItems, inventory.reserve(orderedQuantities));
+        }
+
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            List<Integer> outOfStock = productDAO.decrementStock(connection, orderedQuantities);
+            if (!outOfStock.isEmpty()) {
+                rollback(connection);
+                throw new OutOfStockException(outOfStock);
+            }
+            orderDAO.insert(connection, order);
+            for (OrderItem item : orderedItems) {
+                item.setorder_id(order.getId());
+            }
+            orderItemDAO.insertAll(connection, orderedItems);
+            connection.commit();
+            productDAO.invalidateCached(orderedQuantities.keySet());
+            orderDAO.invalidateCachedList();
+            orderItemDAO.invalidateCachedList();
+            return order;
+        } catch (SQLException e) {
+            rollback(connection);
+            LOGGER.log(Level.WARNING, "OrderService:placeOrder " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Writes an order whose stock is reserved in the inventory engine and commits it together with the
+     * reservation, which journals the sale before the order is committed. The reservation is released if the
+     * order could not be written or its sale could not be journaled.
+     *
+     * @param order       The order to insert; its id is set once it is placed.
+     * @param items       The lines of the order.
+     * @param reservation The stock reserved for the lines.
+     * @return The placed order, or null if it could not be written.
+     */
+    private Order1 placeReservedOrder(Order1 order, List<OrderItem> items, InventoryEngine.Reservation reservation) {
+        Connection connection = null;
+        boolean settled = false;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            orderDAO.insert(connection, order);
+            for (OrderItem item : items) {
+                item.setorder_id(order.getId());
+            }
+            orderItemDAO.insertAll(connection, items);
+            Connection transaction = connection;
+            settled = true;
+            inventory.commit(reservation, order.getId(), transaction::commit);
+            orderDAO.invalidateCachedList();
+            orderItemDAO.invalidateCachedList();
+            return order;
+        } catch (SQLException | IOException e) {
+            rollback(connection);
+            LOGGER.log(Level.WARNING, "OrderService:placeOrder " + e.getMessage());
+        } finally {
+            if (!settled) {
+                inventory.release(reservation);
+            }
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Rolls back the transaction of a connection, logging any failure.
+     *
+     * @param connection The connection, may be null.
+     */
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "OrderService:rollback " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package BLL;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * OutOfStockException is thrown when an order asks for more of a product than is left in stock.
+ * The order has been rolled back when it is thrown, so nothing of it was written.
+ */
+public class OutOfStockException extends Exception {
+    private final List<Integer> productIds;
+
+    /**
+     * Constructs a new OutOfStockException.
+     *
+     * @param productIds The ids of the products that did not have enough stock.
+     */
+    public OutOfStockException(List<Integer> productIds) {
+        super("Not enough stock for products " + productIds);
+        this.productIds = Collections.unmodifiableList(productIds);
+    }
+
+    /**
+     * Gets the products that did not have enough stock.
+     *
+     * @return The product ids.
+     */
+    public List<Integer> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,396 @@
+package BLL;
+
+import DB.EntityListener;
+import DB.EntityListeners;
+import DB.ProductDAO;
+import model.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * ProductSearchIndex finds products by the words of their name and description, fast enough to search as
+ * the clerk types. Words are lower-cased and stripped of accents. A query matches the products holding every
+ * one of its words; its last word, unless followed by a space, only has to start a word of the product,
+ * so that "ste bo" finds "Steel bolt M8".
+ * <p>
+ * The index keeps, for every word, the sorted ids of the products holding it, in a sorted map so that the
+ * words starting with a prefix are one range of it. A query walks the shortest list of ids and stops as soon
+ * as it has found the number of products asked for, so it costs the same whatever the size of the catalog.
+ * <p>
+ * The shared index from {@link #getInstance()} is loaded from the product table once and then follows the
+ * products written through any {@link ProductDAO}, as an {@link EntityListener}. It listens before reading
+ * the table, and a row read by the load is skipped when its product was written or deleted meanwhile, so that
+ * the load never brings back an older copy of a product than the one the listener indexed.
+ */
+public class ProductSearchIndex implements EntityListener<Product> {
+    private static final Logger LOGGER = Logger.getLogger(ProductSearchIndex.class.getName());
+    private static final int MAX_PREFIX_LISTS = 16;
+
+    private static ProductSearchIndex instance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private Set<Integer> changedWhileLoading;
+
+    /**
+     * Gets the index shared by the application, loading it from the product table on first use.
+     * The first call reads the whole table and should not be made on the event dispatch thread.
+     *
+     * @return The shared index.
+     */
+    public static synchronized ProductSearchIndex getInstance() {
+        if (instance == null) {
+            ProductSearchIndex index = new ProductSearchIndex();
+            index.changedWhileLoading = new HashSet<>();
+            EntityListeners.register(Product.class, index);
+            long start = System.nanoTime();
+            try (Stream<Product> products = new ProductDAO().streamAll()) {
+                products.forEach(index::putLoaded);
+            } finally {
+                index.lock.writeLock().lock();
+                try {
+                    index.changedWhileLoading = null;
+                } finally {
+                    index.lock.writeLock().unlock();
+                }
+            }
+            LOGGER.log(Level.INFO, "ProductSearchIndex: " + index.size() + " products indexed in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            instance = index;
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a product to the index, or replaces it if it is already indexed.
+     *
+     * @param product The product.
+     */
+    public void put(Product product) {
+        put(product, false);
+    }
+
+    /**
+     * Adds a product read by the initial load, unless it was written or deleted since the load started.
+     *
+     * @param product The product as read from the table.
+     */
+    private void putLoaded(Product product) {
+        put(product, true);
+    }
+
+    private void put(Product product, boolean loaded) {
+        String[] words = words(product.getName() + " " + (product.getDescription() != null ? product.getDescription() : ""))
+                .toArray(new String[0]);
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                if (loaded && changedWhileLoading.contains(product.getId())) {
+                    return;
+                }
+                if (!loaded) {
+                    changedWhileLoading.add(product.getId());
+                }
+            }
+            removeLocked(product.getId());
+            documents.put(product.getId(), words);
+            for (String word : words) {
+                postings.computeIfAbsent(word, key -> new Postings()).add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param id The id of the product.
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of products indexed.
+     *
+     * @return The product count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products matching a query.
+     *
+     * @param query The words to look for; the last one is a prefix unless the query ends with a space.
+     * @param limit The maximum number of products returned.
+     * @return The ids of the matching products, products holding the last word as a whole word first;
+     * empty if the query has no words.
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> words = new ArrayList<>(words(query));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        char last = query.charAt(query.length() - 1);
+        String prefix = Character.isLetterOrDigit(last) ? words.remove(words.size() - 1) : null;
+
+        lock.readLock().lock();
+        try {
+            if (words.isEmpty()) {
+                return searchPrefix(prefix, limit);
+            }
+            List<Postings> lists = new ArrayList<>(words.size());
+            for (String word : words) {
+                Postings list = postings.get(word);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            List<Postings> prefixLists = prefix != null ? prefixLists(prefix) : null;
+            if (prefixLists != null && prefixLists.isEmpty()) {
+                return List.of();
+            }
+            if (prefixLists != null && prefixLists.size() == 1) {
+                lists.add(prefixLists.get(0));
+                prefix = null;
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists.get(0);
+            int[] positions = new int[lists.size()];
+            int[] prefixPositions = prefixLists != null ? new int[prefixLists.size()] : null;
+            List<Integer> ids = new ArrayList<>(Math.min(limit, shortest.size));
+            for (int i = 0; i < shortest.size && ids.size() < limit; i++) {
+                int id = shortest.ids[i];
+                if (containsAll(lists, positions, id) && (prefix == null || (prefixLists.size() <= MAX_PREFIX_LISTS
+                        ? containsAny(prefixLists, prefixPositions, id) : hasWordStartingWith(id, prefix)))) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void inserted(Product product) {
+        put(product);
+    }
+
+    @Override
+    public void updated(Product product) {
+        put(product);
+    }
+
+    @Override
+    public void deleted(int id) {
+        remove(id);
+    }
+
+    /**
+     * Finds the products holding a word starting with a prefix. Must be called while holding the read lock.
+     *
+     * @param prefix The prefix.
+     * @param limit  The maximum number of products returned.
+     * @return The ids of the products, products holding the prefix as a whole word first.
+     */
+    private List<Integer> searchPrefix(String prefix, int limit) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        NavigableMap<String, Postings> words = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Postings list : words.values()) {
+            for (int i = 0; i < list.size && ids.size() < limit; i++) {
+                ids.add(list.ids[i]);
+            }
+            if (ids.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Tells whether the other lists of a query hold an id of the shortest one. The ids of the shortest list are
+     * checked in increasing order, so each list is searched from where the previous id was found.
+     *
+     * @param lists     The lists of the query, the shortest first.
+     * @param positions Where to start searching each list, moved forward.
+     * @param id        The id.
+     * @return True if every list holds the id.
+     */
+    private static boolean containsAll(List<Postings> lists, int[] positions, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            Postings list = lists.get(i);
+            positions[i] = list.seek(positions[i], id);
+            if (positions[i] == list.size || list.ids[positions[i]] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the lists of the words starting with a prefix, up to one more than can be searched one by one.
+     * Must be called while holding the read lock.
+     *
+     * @param prefix The prefix.
+     * @return The lists, more than {@value #MAX_PREFIX_LISTS} if the prefix starts too many words to search
+     * each of their lists, in which case the words of each product are checked instead.
+     */
+    private List<Postings> prefixLists(String prefix) {
+        List<Postings> lists = new ArrayList<>();
+        for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            lists.add(list);
+            if (lists.size() > MAX_PREFIX_LISTS) {
+                break;
+            }
+        }
+        return lists;
+    }
+
+    private static boolean containsAny(List<Postings> lists, int[] positions, int id) {
+        boolean found = false;
+        for (int i = 0; i < lists.size(); i++) {
+            Postings list = lists.get(i);
+            positions[i] = list.seek(positions[i], id);
+            found |= positions[i] < list.size && list.ids[positions[i]] == id;
+        }
+        return found;
+    }
+
+    private boolean hasWordStartingWith(int id, String prefix) {
+        for (String word : documents.get(id)) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeLocked(int id) {
+        String[] words = documents.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Postings list = postings.get(word);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Splits a text into its distinct words, lower-cased and without accents.
+     *
+     * @param text The text.
+     * @return The words, in the order they first appear.
+     */
+    private static Set<String> words(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * The sorted ids of the products holding one word. Ids are usually added in increasing order,
+     * which appends them.
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        private void add(int id) {
+            int index = size;
+            if (size > 0 && ids[size - 1] >= id) {
+                index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                index = -index - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Finds the first id at least equal to a given id, searching forward from a position with steps
+         * doubling in size, then by bisection.
+         *
+         * @param from The position to search from.
+         * @param id   The id.
+         * @return The position of the first id at least equal to the given one, or the size if there is none.
+         */
+        private int seek(int from, int id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,1329 @@
+package DB;
+
+import DB.DAOMetrics.Operation;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.logging.Logger;
+
+
+public class AbstractDAO<T> {
+    /**
+     * AbstractDAO is a generic Data Access Object (DAO) class providing common database operations.
+     * This class uses Java Reflection and JDBC to perform CRUD operations on database entities.
+     * The SQL, parameter binding and row mapping steps are protected hooks, which the DAOs generated
+     * by {@code processor.DAOProcessor} override with reflection-free code.
+     *
+     * @param <T> The type of the entity managed by this DAO.
+     */
+    protected static final Logger LOGGER = Logger.getLogger(AbstractDAO.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final Class<T> type;
+    private final RowMapper<T> rowMapper;
+    private final StatementCatalog<T> statements;
+    private final DirtyTracker<T> dirtyTracker;
+    private final boolean generatedUpdates;
+    private final DAOMetrics metrics;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /**
+     * Constructor that determines the type of the entity class.
+     */
+    @SuppressWarnings("unchecked")
+    public AbstractDAO() {
+        this.type = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        this.rowMapper = RowMapper.forType(type);
+        this.statements = new StatementCatalog<>(type.getSimpleName(), rowMapper);
+        this.dirtyTracker = DirtyTracker.forType(type, statements, null);
+        this.generatedUpdates = false;
+        this.metrics = DAOMetrics.forType(type);
+    }
+
+    /**
+     * Constructor for subclasses that are not direct parameterized subclasses.
+     *
+     * @param type The entity class.
+     */
+    protected AbstractDAO(Class<T> type) {
+        this(type, type.getSimpleName());
+    }
+
+    /**
+     * Constructor for subclasses whose entity is stored in a table not named after the entity class.
+     *
+     * @param type      The entity class.
+     * @param tableName The table the entity is stored in.
+     */
+    protected AbstractDAO(Class<T> type, String tableName) {
+        this(type, tableName, null, null);
+    }
+
+    /**
+     * Constructor for the generated DAOs, which read the columns of their entity and bind them to partial and
+     * versioned updates with direct getter calls and typed setters, through {@code valueReader} and
+     * {@link #bindUpdateParameters(PreparedStatement, Object, long)}.
+     * <p>
+     * The {@link RowMapper} of the entity is still built by reflection, once per entity type, as criteria
+     * queries, table queries and keyset pages resolve their columns through it. If the generated column order
+     * does not match the one of the row mapper, the generated binders are not used and a warning is logged.
+     *
+     * @param type         The entity class.
+     * @param tableName    The table the entity is stored in.
+     * @param valueColumns The columns except the id, in the order used by the generated binders, or null.
+     * @param valueReader  Reads the values of those columns from an entity, or null.
+     */
+    protected AbstractDAO(Class<T> type, String tableName, String[] valueColumns, Function<T, Object[]> valueReader) {
+        this.type = type;
+        this.rowMapper = RowMapper.forType(type);
+        this.statements = new StatementCatalog<>(tableName, rowMapper);
+        this.generatedUpdates = valueColumns != null && valueReader != null && matchesValueColumns(valueColumns);
+        this.dirtyTracker = DirtyTracker.forType(type, statements, generatedUpdates ? valueReader : null);
+        this.metrics = DAOMetrics.forType(type);
+    }
+
+    private boolean matchesValueColumns(String[] valueColumns) {
+        List<RowMapper.Property> properties = statements.getValueProperties();
+        boolean matches = valueColumns.length == properties.size() && properties.size() < Long.SIZE;
+        for (int i = 0; matches && i < valueColumns.length; i++) {
+            matches = valueColumns[i].equalsIgnoreCase(properties.get(i).getName());
+        }
+        if (!matches) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO: generated columns do not match the entity fields,"
+                    + " binding updates through the row mapper");
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the entity class managed by this DAO.
+     *
+     * @return The entity class.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the statement catalog built for the entity type when the DAO was constructed.
+     *
+     * @return The statement catalog.
+     */
+    protected StatementCatalog<T> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Gets the number of rows sent to the database in one batch by the bulk operations.
+     *
+     * @return The batch size.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of rows sent to the database in one batch by the bulk operations.
+     *
+     * @param batchSize The batch size, at least 1.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the number of rows fetched from the server at a time by the streaming reads.
+     *
+     * @return The fetch size.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the number of rows fetched from the server at a time by the streaming reads.
+     *
+     * @param fetchSize The fetch size, at least 1.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Creates the query used by {@link #findAll()}.
+     *
+     * @return The SQL query string.
+     */
+    protected String createFindAllQuery() {
+        return statements.getFindAllQuery();
+    }
+
+    /**
+     * Creates the query used by {@link #findById(int)}.
+     *
+     * @return The SQL query string.
+     */
+    protected String createFindByIdQuery() {
+        return statements.getFindByIdQuery();
+    }
+
+    /**
+     * Retrieves all records of the entity from the database.
+     *
+     * @return A list of all entities.
+     */
+    public List<T> findAll() {
+        long start = System.nanoTime();
+        EntityCache<T> cache = EntityCache.forType(type);
+        long generation = 0;
+        if (cache != null) {
+            generation = cache.getGeneration();
+            List<T> cached = cache.getAll();
+            if (cached != null) {
+                dirtyTracker.snapshotAll(cached);
+                metrics.record(Operation.FIND_ALL, start, cached.size());
+                return cached;
+            }
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        List<T> entities = new ArrayList<>();
+        String query = createFindAllQuery();
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(query);
+            resultSet = statement.executeQuery();
+            entities = createObjects(resultSet);
+            dirtyTracker.snapshotAll(entities);
+            if (cache != null) {
+                cache.putAll(entities, generation);
+            }
+            metrics.record(Operation.FIND_ALL, start, entities.size());
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_ALL, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findAll " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return entities;
+    }
+
+    /**
+     * Streams all records of the entity from a forward-only, read-only cursor, fetching
+     * {@link #getFetchSize()} rows at a time, so that exports and reports run in constant memory.
+     * The connection stays open until the stream is closed, so the stream must be used in a
+     * try-with-resources block. Streamed entities are not tracked for partial updates.
+     *
+     * @return A stream of all entities, empty if the query fails.
+     */
+    public Stream<T> streamAll() {
+        try {
+            return CursorStreams.open(createFindAllQuery(), fetchSize, this::createRowReader,
+                    CursorStreams.ParameterBinder.NONE);
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:streamAll " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Counts the records of the entity.
+     *
+     * @return The number of records, or 0 if the query fails.
+     */
+    public int count() {
+        return count(TableQuery.BY_ID);
+    }
+
+    /**
+     * Counts the records of the entity that match the filter of a table query.
+     *
+     * @param query The table query whose filter is applied.
+     * @return The number of matching records, or 0 if the query fails.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public int count(TableQuery query) {
+        long start = System.nanoTime();
+        TableQuery checkedQuery = checkQuery(query);
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(statements.getCountQuery(checkedQuery));
+            bindFilter(statement, checkedQuery);
+            resultSet = statement.executeQuery();
+            metrics.record(Operation.COUNT, start, 1);
+            if (resultSet.next()) {
+                return resultSet.getInt(1);
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.COUNT, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:count " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieves the records at the given positions in id order.
+     * This is meant for viewers that jump to an arbitrary position; sequential readers should use
+     * {@link #findPage(int, int)}, which does not pay for the skipped rows.
+     *
+     * @param offset The position of the first record.
+     * @param limit  The maximum number of records.
+     * @return The records in the range.
+     */
+    public List<T> findRange(int offset, int limit) {
+        return findRange(TableQuery.BY_ID, offset, limit);
+    }
+
+    /**
+     * Retrieves the records at the given positions of a sorted and filtered table query.
+     *
+     * @param query  The table query giving the order and the filter.
+     * @param offset The position of the first record.
+     * @param limit  The maximum number of records.
+     * @return The records in the range.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public List<T> findRange(TableQuery query, int offset, int limit) {
+        long start = System.nanoTime();
+        TableQuery checkedQuery = checkQuery(query);
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        List<T> entities = new ArrayList<>();
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(statements.getRangeQuery(checkedQuery));
+            int parameterIndex = bindFilter(statement, checkedQuery);
+            statement.setInt(parameterIndex++, limit);
+            statement.setInt(parameterIndex, offset);
+            resultSet = statement.executeQuery();
+            entities = createObjects(resultSet);
+            dirtyTracker.snapshotAll(entities);
+            metrics.record(Operation.FIND_RANGE, start, entities.size());
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_RANGE, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findRange " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return entities;
+    }
+
+    /**
+     * Retrieves the page of records that follows the given id, in id order.
+     * The query seeks on the primary key instead of skipping rows with OFFSET, so every page costs the same.
+     *
+     * @param afterId The id of the last record of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of records in the page.
+     * @return The page, with the cursor to the next page.
+     */
+    public Page<T> findPage(int afterId, int limit) {
+        if (afterId == 0) {
+            return findFirstPage(TableQuery.BY_ID, limit);
+        }
+        return findPage("id", afterId, afterId, limit);
+    }
+
+    /**
+     * Retrieves the first page of records in (sort column, id) order.
+     *
+     * @param sortColumn The column to sort on, which should be indexed.
+     * @param limit      The maximum number of records in the page.
+     * @return The page, with the cursor to the next page; an empty page if the query fails.
+     */
+    public Page<T> findFirstPage(String sortColumn, int limit) {
+        return findFirstPage(TableQuery.BY_ID.sortedBy(sortColumn, true), limit);
+    }
+
+    /**
+     * Retrieves the first page of a sorted and filtered table query.
+     *
+     * @param query The table query giving the order and the filter.
+     * @param limit The maximum number of records in the page.
+     * @return The page, with the cursor to the next page; an empty page if the query fails.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public Page<T> findFirstPage(TableQuery query, int limit) {
+        return findPage(query, false, null, 0, limit);
+    }
+
+    /**
+     * Retrieves the page of records whose sort column is greater than the given key, in sort column order.
+     * Records that share the key with the last record of the previous page are skipped, so this variant
+     * is meant for unique columns; use {@link #findPage(String, Object, int, int)} otherwise.
+     *
+     * @param sortColumn The column to sort and seek on, which should be indexed.
+     * @param afterKey   The sort key of the last record of the previous page, which may be null.
+     * @param limit      The maximum number of records in the page.
+     * @return The page, with the cursor to the next page.
+     */
+    public Page<T> findPage(String sortColumn, Object afterKey, int limit) {
+        return findPage(sortColumn, afterKey, Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Retrieves the page of records that follows the given cursor, in (sort column, id) order.
+     * The query seeks past the cursor with a WHERE clause on the sort column and the id instead of skipping
+     * rows with OFFSET, so an index on (sort column, id) serves every page at the same cost.
+     * The first page is read with {@link #findFirstPage(String, int)}.
+     *
+     * @param sortColumn The column to sort and seek on, which should be indexed.
+     * @param afterKey   The sort key of the last record of the previous page, which may be null.
+     * @param afterId    The id of the last record of the previous page, breaking ties on the sort key.
+     * @param limit      The maximum number of records in the page.
+     * @return The page, with the cursor to the next page; an empty page if the query fails.
+     */
+    public Page<T> findPage(String sortColumn, Object afterKey, int afterId, int limit) {
+        return findPage(TableQuery.BY_ID.sortedBy(sortColumn, true), afterKey, afterId, limit);
+    }
+
+    /**
+     * Retrieves the page of a sorted and filtered table query that follows the given cursor.
+     * Only the rows matching the filter are read, and the page seeks past the cursor in
+     * (sort column, id) order, ascending or descending, instead of skipping rows with OFFSET.
+     * The first page is read with {@link #findFirstPage(TableQuery, int)}; a null key is a cursor
+     * on a row whose sort column is NULL, which sorts before every other value as in MySQL.
+     *
+     * @param query    The table query giving the order and the filter.
+     * @param afterKey The sort key of the last record of the previous page, which may be null.
+     * @param afterId  The id of the last record of the previous page, breaking ties on the sort key.
+     * @param limit    The maximum number of records in the page.
+     * @return The page, with the cursor to the next page; an empty page if the query fails.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public Page<T> findPage(TableQuery query, Object afterKey, int afterId, int limit) {
+        return findPage(query, true, afterKey, afterId, limit);
+    }
+
+    private Page<T> findPage(TableQuery query, boolean seek, Object afterKey, int afterId, int limit) {
+        long start = System.nanoTime();
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1");
+        }
+        TableQuery checkedQuery = checkQuery(query);
+        RowMapper.Property sortProperty = rowMapper.getProperty(checkedQuery.getSortColumn());
+        boolean byId = sortProperty == statements.getIdProperty();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(seek
+                    ? statements.getSeekQuery(checkedQuery, afterKey == null)
+                    : statements.getFirstPageQuery(checkedQuery));
+            int parameterIndex = bindFilter(statement, checkedQuery);
+            if (seek && byId) {
+                statement.setInt(parameterIndex++, afterId);
+            } else if (seek) {
+                if (afterKey != null) {
+                    statement.setObject(parameterIndex++, afterKey);
+                    statement.setObject(parameterIndex++, afterKey);
+                }
+                statement.setInt(parameterIndex++, afterId);
+            }
+            statement.setInt(parameterIndex, limit + 1);
+            resultSet = statement.executeQuery();
+            List<T> items = createObjects(resultSet);
+
+            boolean hasNext = items.size() > limit;
+            if (hasNext) {
+                items = new ArrayList<>(items.subList(0, limit));
+            }
+            dirtyTracker.snapshotAll(items);
+            metrics.record(Operation.FIND_PAGE, start, items.size());
+            if (items.isEmpty()) {
+                return new Page<>(items, null, 0, false);
+            }
+            T last = items.getLast();
+            int lastId = (Integer) statements.getIdProperty().get(last);
+            return new Page<>(items, sortProperty.get(last), lastId, hasNext);
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_PAGE, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findPage " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return new Page<>(new ArrayList<>(), null, 0, false);
+    }
+
+    /**
+     * Checks that the columns of a table query belong to the entity and that the filter value fits its column,
+     * and spells the columns as the entity does, so that only known column names are ever written into the SQL.
+     * The check does not touch the database, so viewers can call it before starting a background load.
+     *
+     * @param query The table query to check.
+     * @return The query with its column names as declared by the entity.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public TableQuery checkQuery(TableQuery query) {
+        RowMapper.Property sortProperty = rowMapper.getProperty(query.getSortColumn());
+        if (sortProperty == null) {
+            throw new IllegalArgumentException(type.getName() + " has no column " + query.getSortColumn());
+        }
+        TableQuery checkedQuery = query.sortedBy(sortProperty.getName(), query.isAscending());
+        if (query.isFiltered()) {
+            RowMapper.Property filterProperty = rowMapper.getProperty(query.getFilterColumn());
+            if (filterProperty == null) {
+                throw new IllegalArgumentException(type.getName() + " has no column " + query.getFilterColumn());
+            }
+            checkedQuery = checkedQuery.filteredBy(filterProperty.getName(), query.getFilterValue());
+            filterParameter(checkedQuery);
+        }
+        return checkedQuery;
+    }
+
+    /**
+     * Converts the filter value of a checked table query to the parameter bound in its WHERE clause.
+     * String columns are matched by prefix, with the LIKE wildcards in the value escaped.
+     *
+     * @param query The checked table query.
+     * @return The parameter value.
+     * @throws IllegalArgumentException If the filter value does not fit the column type.
+     */
+    private Object filterParameter(TableQuery query) {
+        String value = query.getFilterValue();
+        if (statements.isPrefixFilter(query)) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        }
+        Class<?> columnType = RowMapper.boxed(rowMapper.getProperty(query.getFilterColumn()).getType());
+        try {
+            String text = value.trim();
+            if (columnType == Integer.class) {
+                return Integer.valueOf(text);
+            } else if (columnType == Long.class) {
+                return Long.valueOf(text);
+            } else if (columnType == Double.class) {
+                return Double.valueOf(text);
+            } else if (columnType == BigDecimal.class) {
+                return new BigDecimal(text);
+            } else if (columnType == Timestamp.class) {
+                return Timestamp.valueOf(text);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + query.getFilterColumn() + ": " + value, e);
+        }
+        return value;
+    }
+
+    /**
+     * Binds the filter value of a table query as the first parameter of its statement.
+     *
+     * @param statement The statement prepared from the table query.
+     * @param query     The checked table query.
+     * @return The index of the next parameter.
+     * @throws SQLException If the parameter cannot be set.
+     */
+    private int bindFilter(PreparedStatement statement, TableQuery query) throws SQLException {
+        if (!query.isFiltered()) {
+            return 1;
+        }
+        statement.setObject(1, filterParameter(query));
+        return 2;
+    }
+
+    /**
+     * Retrieves a record by its ID.
+     *
+     * @param id The ID of the entity.
+     * @return The entity with the specified ID or null if not found.
+     */
+    public T findById(int id) {
+        long start = System.nanoTime();
+        EntityCache<T> cache = EntityCache.forType(type);
+        long generation = 0;
+        if (cache != null) {
+            generation = cache.getGeneration();
+            T cached = cache.get(id);
+            if (cached != null) {
+                dirtyTracker.snapshot(cached);
+                metrics.record(Operation.FIND_BY_ID, start, 1);
+                return cached;
+            }
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        String query = createFindByIdQuery();
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(query);
+            statement.setInt(1, id);
+            resultSet = statement.executeQuery();
+            List<T> resultList = createObjects(resultSet);
+            metrics.record(Operation.FIND_BY_ID, start, resultList.size());
+            if (!resultList.isEmpty()) {
+                T entity = resultList.getFirst();
+                dirtyTracker.snapshot(entity);
+                if (cache != null) {
+                    cache.put(id, entity, generation);
+                }
+                return entity;
+            }
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_BY_ID, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findById " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the records with the given IDs.
+     *
+     * @param ids The IDs of the entities; duplicates are looked up once.
+     * @return The entities found, in no particular order; IDs without a record are left out.
+     */
+    public List<T> findByIds(Collection<Integer> ids) {
+        long start = System.nanoTime();
+        Connection connection = null;
+        List<T> entities = new ArrayList<>();
+        try {
+            connection = ConnectionFactory.getConnection();
+            entities = findByIds(connection, ids);
+            metrics.record(Operation.FIND_BY_IDS, start, entities.size());
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_BY_IDS, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findByIds " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return entities;
+    }
+
+    /**
+     * Retrieves the records matching a criterion, with every column.
+     *
+     * @param criterion The criterion the records must match.
+     * @return The entities found, in no particular order, or an empty list if the query fails.
+     * @throws IllegalArgumentException If the criterion names an unknown column or a value does not fit its column.
+     */
+    public List<T> findBy(Criterion criterion) {
+        return findBy(CriteriaQuery.ALL.where(criterion));
+    }
+
+    /**
+     * Retrieves the records of a criteria query, filtered, sorted and limited by the database.
+     * When the query selects some columns only, the other properties of the entities are left at their default
+     * value; they are tracked as loaded, so updating such an entity writes only the properties changed since.
+     *
+     * @param query The criteria query.
+     * @return The entities found, or an empty list if the query fails.
+     * @throws IllegalArgumentException If the query names an unknown column or a value does not fit its column.
+     */
+    public List<T> findBy(CriteriaQuery query) {
+        long start = System.nanoTime();
+        List<Object> parameters = new ArrayList<>();
+        String sql = query.toSql(statements, rowMapper, parameters);
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        List<T> entities = new ArrayList<>();
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            resultSet = statement.executeQuery();
+            entities = createObjects(resultSet);
+            dirtyTracker.snapshotAll(entities);
+            metrics.record(Operation.FIND_BY, start, entities.size());
+        } catch (SQLException e) {
+            metrics.recordError(Operation.FIND_BY, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findBy " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return entities;
+    }
+
+    /**
+     * Retrieves the records with the given IDs on the given connection.
+     *
+     * @param connection The connection to read on.
+     * @param ids        The IDs of the entities; duplicates are looked up once.
+     * @return The entities found, in no particular order; IDs without a record are left out.
+     * @throws SQLException If a query fails.
+     */
+    public List<T> findByIds(Connection connection, Collection<Integer> ids) throws SQLException {
+        return findByColumnIn(connection, "id", ids);
+    }
+
+    /**
+     * Retrieves the records whose value of an integer column is one of the given values, asking for up to
+     * {@link #getBatchSize()} values per query. The IN lists are padded to a power of two by repeating the
+     * last value, so that only a few statement shapes are prepared however many values are asked for.
+     *
+     * @param connection The connection to read on.
+     * @param column     The column, which must be a column of the entity.
+     * @param values     The values; duplicates are looked up once.
+     * @return The entities found, in no particular order.
+     * @throws SQLException If a query fails.
+     */
+    protected List<T> findByColumnIn(Connection connection, String column, Collection<Integer> values)
+            throws SQLException {
+        List<Integer> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        List<T> entities = new ArrayList<>();
+        for (int from = 0; from < distinctValues.size(); from += batchSize) {
+            List<Integer> chunk = distinctValues.subList(from, Math.min(from + batchSize, distinctValues.size()));
+            int parameterCount = Math.min(Integer.highestOneBit(chunk.size() * 2 - 1), batchSize);
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                statement = connection.prepareStatement(statements.getFindInQuery(column, parameterCount));
+                for (int i = 0; i < parameterCount; i++) {
+                    statement.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                resultSet = statement.executeQuery();
+                entities.addAll(createObjects(resultSet));
+            } finally {
+                ConnectionFactory.close(resultSet);
+                ConnectionFactory.close(statement);
+            }
+        }
+        dirtyTracker.snapshotAll(entities);
+        return entities;
+    }
+
+    /**
+     * Creates the reader that maps rows of the given ResultSet onto entities.
+     *
+     * @param resultSet The ResultSet obtained from executing a query.
+     * @return A reader bound to the columns of the ResultSet.
+     * @throws SQLException If the ResultSet metadata cannot be read.
+     */
+    protected RowReader<T> createRowReader(ResultSet resultSet) throws SQLException {
+        return rowMapper.bind(resultSet.getMetaData());
+    }
+
+    /**
+     * Creates a list of entities from the ResultSet.
+     *
+     * @param resultSet The ResultSet obtained from executing a query.
+     * @return A list of entities.
+     */
+    List<T> createObjects(ResultSet resultSet) {
+        List<T> list = new ArrayList<>();
+        try {
+            RowReader<T> reader = createRowReader(resultSet);
+            while (resultSet.next()) {
+                list.add(reader.read(resultSet));
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error creating objects: " + e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * Creates the INSERT query for all the columns except the id.
+     *
+     * @return The SQL query string.
+     */
+    protected String createInsertQuery() {
+        return statements.getInsertQuery();
+    }
+
+    /**
+     * Binds the values of all the columns except the id to the parameters of the INSERT query.
+     *
+     * @param statement The statement prepared from {@link #createInsertQuery()}.
+     * @param entity    The entity to be inserted.
+     * @throws SQLException If a parameter cannot be set.
+     */
+    protected void bindInsertParameters(PreparedStatement statement, T entity) throws SQLException {
+        int parameterIndex = 1;
+        for (RowMapper.Property property : statements.getValueProperties()) {
+            statement.setObject(parameterIndex++, property.get(entity));
+        }
+    }
+
+    /**
+     * Writes the id generated by the database back into an inserted entity.
+     *
+     * @param entity The inserted entity.
+     * @param id     The generated id.
+     */
+    protected void setGeneratedId(T entity, int id) {
+        statements.getIdProperty().set(entity, id);
+    }
+
+    /**
+     * Inserts a new entity into the database.
+     *
+     * @param entity The entity to be inserted.
+     * @return The inserted entity with an updated ID.
+     */
+    public T insert(T entity) {
+        long start = System.nanoTime();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(createInsertQuery(), Statement.RETURN_GENERATED_KEYS);
+            bindInsertParameters(statement, entity);
+            int affectedRows = statement.executeUpdate();
+            if (affectedRows == 0) {
+                throw new SQLException("Inserting entity failed, no rows affected.");
+            }
+
+            resultSet = statement.getGeneratedKeys();
+            if (resultSet.next()) {
+                setGeneratedId(entity, resultSet.getInt(1));
+            } else {
+                throw new SQLException("Inserting entity failed, no ID obtained.");
+            }
+            dirtyTracker.snapshot(entity);
+            invalidateCachedList();
+            metrics.record(Operation.INSERT, start, 1);
+            EntityListeners.fireInserted(type, entity);
+            return entity;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.INSERT, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:insert " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Inserts several entities in one transaction using JDBC batches, writing the generated ids back into them.
+     * Either every entity is inserted or, if any insert fails, none is.
+     *
+     * @param entities The entities to be inserted.
+     * @return The inserted entities with updated IDs, or null if the transaction was rolled back.
+     */
+    public List<T> insertAll(Collection<T> entities) {
+        long start = System.nanoTime();
+        List<T> inserted = new ArrayList<>(entities);
+        if (inserted.isEmpty()) {
+            return inserted;
+        }
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            insertAll(connection, inserted);
+            connection.commit();
+            dirtyTracker.snapshotAll(inserted);
+            invalidateCachedList();
+            metrics.record(Operation.INSERT_ALL, start, inserted.size());
+            for (T entity : inserted) {
+                EntityListeners.fireInserted(type, entity);
+            }
+            return inserted;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.INSERT_ALL, start);
+            rollback(connection);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:insertAll " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Inserts an entity on the given connection without committing, so that the caller can make it
+     * part of a larger transaction. The caller owns the connection and its transaction.
+     *
+     * @param connection The connection to insert on.
+     * @param entity     The entity to be inserted; its id is set from the generated key.
+     * @return The inserted entity.
+     * @throws SQLException If the insert fails.
+     */
+    public T insert(Connection connection, T entity) throws SQLException {
+        insertAll(connection, List.of(entity));
+        return entity;
+    }
+
+    /**
+     * Inserts several entities on the given connection using JDBC batches of {@link #getBatchSize()} rows,
+     * without committing, so that the caller can make them part of a larger transaction.
+     * The caller owns the connection and its transaction, and calls {@link #invalidateCachedList()} once it
+     * is committed.
+     *
+     * @param connection The connection to insert on.
+     * @param entities   The entities to be inserted; their ids are set from the generated keys.
+     * @throws SQLException If any batch fails.
+     */
+    public void insertAll(Connection connection, List<T> entities) throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(createInsertQuery(), Statement.RETURN_GENERATED_KEYS);
+            for (int start = 0; start < entities.size(); start += batchSize) {
+                List<T> chunk = entities.subList(start, Math.min(start + batchSize, entities.size()));
+                for (T entity : chunk) {
+                    bindInsertParameters(statement, entity);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                resultSet = statement.getGeneratedKeys();
+                for (T entity : chunk) {
+                    if (!resultSet.next()) {
+                        throw new SQLException("Inserting entities failed, not every ID was obtained.");
+                    }
+                    setGeneratedId(entity, resultSet.getInt(1));
+                }
+                ConnectionFactory.close(resultSet);
+                resultSet = null;
+            }
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+        }
+    }
+
+    /**
+     * Rolls back the current transaction of a connection, logging any failure.
+     *
+     * @param connection The connection, may be null.
+     */
+    protected void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, type.getName() + "DAO:rollback " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates the UPDATE query that sets all the columns except the id, filtered by id.
+     * Versioned entities do not use it, as their updates also check and increment the version.
+     *
+     * @return The SQL query string.
+     */
+    protected String createUpdateQuery() {
+        return statements.getUpdateQuery();
+    }
+
+    /**
+     * Binds the values of all the columns except the id, followed by the id, to the parameters of the UPDATE query.
+     *
+     * @param statement The statement prepared from {@link #createUpdateQuery()}.
+     * @param entity    The entity with updated values.
+     * @throws SQLException If a parameter cannot be set.
+     */
+    protected void bindUpdateParameters(PreparedStatement statement, T entity) throws SQLException {
+        int parameterIndex = 1;
+        for (RowMapper.Property property : statements.getValueProperties()) {
+            statement.setObject(parameterIndex++, property.get(entity));
+        }
+        statement.setObject(parameterIndex, statements.getIdProperty().get(entity));
+    }
+
+    /**
+     * Binds the changed columns of an entity, followed by its id and, for a versioned entity, its version,
+     * to a partial or versioned UPDATE statement. The version column itself is never bound as a changed column.
+     * It is only called on DAOs built with generated value columns; the others bind through the row mapper.
+     *
+     * @param statement The statement from {@link StatementCatalog#getUpdateQuery(long)} or
+     *                  {@link StatementCatalog#getVersionedUpdateQuery(long)}.
+     * @param entity    The entity with updated values.
+     * @param columns   The mask of changed columns, bit i for the i-th column of {@link StatementCatalog#getValueProperties()}.
+     * @throws SQLException If a parameter cannot be set.
+     */
+    protected void bindUpdateParameters(PreparedStatement statement, T entity, long columns) throws SQLException {
+        bindChangedColumns(statement, entity, columns);
+    }
+
+    /**
+     * Updates an existing entity in the database.
+     * Only the columns changed since the entity was loaded or last written are sent; an entity without
+     * changes is not written at all, and an entity the DAOs have not seen before is written in full.
+     * A versioned entity is only written if its row still holds the version the entity was read with,
+     * and its version is then incremented.
+     *
+     * @param entity The entity with updated values.
+     * @return True if the changes were written or there were none, false if the update failed.
+     * @throws OptimisticLockException If the entity is versioned and its row was changed or deleted since it was read.
+     */
+    public boolean update(T entity) {
+        long start = System.nanoTime();
+        long dirtyColumns = dirtyTracker.dirtyColumns(entity) & ~statements.getVersionColumn();
+        if (dirtyColumns == 0) {
+            LOGGER.log(Level.FINE, type.getName() + " has no changes to update");
+            return true;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = prepareUpdate(connection, dirtyColumns);
+            bindUpdate(statement, entity, dirtyColumns);
+
+            int affectedRows = statement.executeUpdate();
+            if (affectedRows == 0) {
+                if (statements.getVersionProperty() != null) {
+                    metrics.recordError(Operation.UPDATE, start);
+                    invalidateCachedEntity(entity);
+                    throw conflict(entity);
+                }
+                throw new SQLException("Updating entity failed, no rows affected.");
+            }
+            incrementVersion(entity);
+            dirtyTracker.snapshot(entity);
+            invalidateCachedEntity(entity);
+            metrics.record(Operation.UPDATE, start, 1);
+            EntityListeners.fireUpdated(type, entity);
+
+            LOGGER.log(Level.INFO, type.getName() + " updated successfully!");
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.UPDATE, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:update " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return false;
+    }
+
+    /**
+     * Updates several entities in one transaction using JDBC batches.
+     * Entities are grouped by the set of columns they changed, each group is sent as batches of the same
+     * partial UPDATE, and entities without changes are skipped.
+     *
+     * @param entities The entities with updated values.
+     * @return True if every change was written, false if the transaction was rolled back.
+     * @throws OptimisticLockException If the entities are versioned and the row of one of them was changed or
+     *                                 deleted since it was read, in which case the transaction was rolled back.
+     */
+    public boolean updateAll(Collection<T> entities) {
+        long start = System.nanoTime();
+        if (entities.isEmpty()) {
+            return true;
+        }
+        Connection connection = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            connection.setAutoCommit(false);
+            List<T> updated = updateAll(connection, entities);
+            connection.commit();
+            for (T entity : updated) {
+                incrementVersion(entity);
+            }
+            dirtyTracker.snapshotAll(updated);
+            for (T entity : updated) {
+                invalidateCachedEntity(entity);
+            }
+            metrics.record(Operation.UPDATE_ALL, start, updated.size());
+            for (T entity : updated) {
+                EntityListeners.fireUpdated(type, entity);
+            }
+            LOGGER.log(Level.INFO, updated.size() + " " + type.getName() + " updated successfully!");
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.UPDATE_ALL, start);
+            rollback(connection);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:updateAll " + e.getMessage());
+        } catch (OptimisticLockException e) {
+            metrics.recordError(Operation.UPDATE_ALL, start);
+            rollback(connection);
+            invalidateCached(e.getId());
+            throw e;
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return false;
+    }
+
+    /**
+     * Writes the changes of several entities on the given connection using JDBC batches, without committing.
+     * The versions of versioned entities are checked but not incremented, which is left to
+     * {@link #incrementVersion(Object)} once the transaction is committed.
+     *
+     * @param connection The connection to update on.
+     * @param entities   The entities with updated values.
+     * @return The entities that had changes and were written.
+     * @throws SQLException If any batch fails or an entity no longer exists.
+     * @throws OptimisticLockException If the entities are versioned and the row of one of them was changed or
+     *                                 deleted since it was read.
+     */
+    protected List<T> updateAll(Connection connection, Collection<T> entities) throws SQLException {
+        Map<Long, List<T>> groups = new LinkedHashMap<>();
+        for (T entity : entities) {
+            long dirtyColumns = dirtyTracker.dirtyColumns(entity) & ~statements.getVersionColumn();
+            if (dirtyColumns != 0) {
+                groups.computeIfAbsent(dirtyColumns, columns -> new ArrayList<>()).add(entity);
+            }
+        }
+
+        List<T> updated = new ArrayList<>();
+        for (Map.Entry<Long, List<T>> group : groups.entrySet()) {
+            long dirtyColumns = group.getKey();
+            List<T> members = group.getValue();
+            PreparedStatement statement = null;
+            try {
+                statement = prepareUpdate(connection, dirtyColumns);
+                for (int start = 0; start < members.size(); start += batchSize) {
+                    List<T> chunk = members.subList(start, Math.min(start + batchSize, members.size()));
+                    for (T entity : chunk) {
+                        bindUpdate(statement, entity, dirtyColumns);
+                        statement.addBatch();
+                    }
+                    int[] affectedRows = statement.executeBatch();
+                    for (int i = 0; i < affectedRows.length; i++) {
+                        if (affectedRows[i] == 0) {
+                            if (statements.getVersionProperty() != null) {
+                                throw conflict(chunk.get(i));
+                            }
+                            throw new SQLException("Updating entity failed, no rows affected.");
+                        }
+                    }
+                }
+            } finally {
+                ConnectionFactory.close(statement);
+            }
+            updated.addAll(members);
+        }
+        return updated;
+    }
+
+    /**
+     * Applies a change to an entity and updates it, reading the entity again and applying the change to the
+     * fresh copy when another writer updated the entity in between. The change may thus run several times
+     * and must only depend on the entity it is given, such as adding to a quantity or setting a price.
+     * Entities that are not versioned are written on the first attempt.
+     *
+     * @param id          The id of the entity.
+     * @param change      The change to apply to the entity.
+     * @param maxAttempts The maximum number of times the entity is read and updated, at least 1.
+     * @return The updated entity, or null if there is no entity with this id.
+     * @throws OptimisticLockException If the entity was still changed by another writer on the last attempt.
+     * @throws IllegalStateException   If the update failed for another reason, which has been logged.
+     */
+    public T update(int id, Consumer<? super T> change, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed");
+        }
+        for (int attempt = 1; ; attempt++) {
+            T entity = findById(id);
+            if (entity == null) {
+                return null;
+            }
+            change.accept(entity);
+            try {
+                if (!update(entity)) {
+                    throw new IllegalStateException(type.getSimpleName() + " " + id + " could not be updated");
+                }
+                return entity;
+            } catch (OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                LOGGER.log(Level.FINE, type.getName() + " " + id + " changed concurrently, retrying");
+            }
+        }
+    }
+
+    /**
+     * Adds one to the version of a versioned entity whose update has been committed, so that its next
+     * update expects the version now held by its row. Does nothing for an entity that is not versioned.
+     *
+     * @param entity The updated entity.
+     */
+    protected void incrementVersion(T entity) {
+        RowMapper.Property version = statements.getVersionProperty();
+        if (version == null) {
+            return;
+        }
+        Object current = version.get(entity);
+        version.set(entity, current instanceof Long value ? (Object) (value + 1) : (Object) ((Integer) current + 1));
+    }
+
+    private OptimisticLockException conflict(T entity) {
+        return new OptimisticLockException(type, ((Number) statements.getIdProperty().get(entity)).intValue(),
+                ((Number) statements.getVersionProperty().get(entity)).longValue());
+    }
+
+    /**
+     * Prepares the full or partial UPDATE statement for a set of changed columns.
+     *
+     * @param connection   The connection to prepare on.
+     * @param dirtyColumns The mask of changed columns.
+     * @return The prepared statement.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    private PreparedStatement prepareUpdate(Connection connection, long dirtyColumns) throws SQLException {
+        if (statements.getVersionProperty() != null) {
+            return connection.prepareStatement(statements.getVersionedUpdateQuery(dirtyColumns));
+        }
+        if (dirtyColumns == dirtyTracker.allColumns()) {
+            return connection.prepareStatement(createUpdateQuery());
+        }
+        return connection.prepareStatement(statements.getUpdateQuery(dirtyColumns));
+    }
+
+    /**
+     * Binds the changed columns of an entity, followed by its id and, for a versioned entity, its version,
+     * to an UPDATE statement.
+     *
+     * @param statement    The statement from {@link #prepareUpdate(Connection, long)}.
+     * @param entity       The entity with updated values.
+     * @param dirtyColumns The mask of changed columns.
+     * @throws SQLException If a parameter cannot be set.
+     */
+    private void bindUpdate(PreparedStatement statement, T entity, long dirtyColumns) throws SQLException {
+        if (statements.getVersionProperty() == null && dirtyColumns == dirtyTracker.allColumns()) {
+            bindUpdateParameters(statement, entity);
+        } else if (generatedUpdates) {
+            bindUpdateParameters(statement, entity, dirtyColumns);
+        } else {
+            bindChangedColumns(statement, entity, dirtyColumns);
+        }
+    }
+
+    private void bindChangedColumns(PreparedStatement statement, T entity, long dirtyColumns) throws SQLException {
+        RowMapper.Property version = statements.getVersionProperty();
+        List<RowMapper.Property> properties = statements.getValueProperties();
+        int parameterIndex = 1;
+        for (int i = 0; i < properties.size(); i++) {
+            if ((dirtyColumns & (1L << i)) != 0 && properties.get(i) != version) {
+                statement.setObject(parameterIndex++, properties.get(i).get(entity));
+            }
+        }
+        statement.setObject(parameterIndex++, statements.getIdProperty().get(entity));
+        if (version != null) {
+            statement.setObject(parameterIndex, version.get(entity));
+        }
+    }
+
+    /**
+     * Creates the DELETE query filtered by id.
+     *
+     * @return The SQL query string.
+     */
+    protected String createDeleteQuery() {
+        return statements.getDeleteQuery();
+    }
+
+    /**
+     * Deletes an entity by its ID.
+     *
+     * @param id The ID of the entity to be deleted.
+     * @return True if the entity was deleted, false if there was no such entity or the delete failed.
+     */
+    protected boolean delete(int id) {
+        long start = System.nanoTime();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            String query = createDeleteQuery();
+
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement(query);
+
+            statement.setInt(1, id);
+
+            int affectedRows = statement.executeUpdate();
+            if (affectedRows == 0) {
+                throw new SQLException("Deleting entity failed, no rows affected.");
+            }
+            invalidateCached(id);
+            metrics.record(Operation.DELETE, start, 1);
+            EntityListeners.fireDeleted(type, id);
+
+            LOGGER.log(Level.INFO, type.getName() + " deleted successfully!");
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError(Operation.DELETE, start);
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:delete " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return false;
+    }
+
+
+    /**
+     * Drops an entity from the cache of the entity type, if the type has one, after it was written.
+     *
+     * @param entity The written entity.
+     */
+    private void invalidateCachedEntity(T entity) {
+        invalidateCached((Integer) statements.getIdProperty().get(entity));
+    }
+
+    /**
+     * Drops an entity from the cache of the entity type, if the type has one, after it was written.
+     * Writes made on a connection passed in by the caller are only invalidated by the caller, once committed,
+     * so that no read made before the commit can cache the old row.
+     *
+     * @param id The id of the written entity.
+     */
+    public void invalidateCached(int id) {
+        EntityCache<T> cache = EntityCache.forType(type);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Drops several entities from the cache of the entity type, if the type has one, after they were written.
+     *
+     * @param ids The ids of the written entities.
+     */
+    public void invalidateCached(Collection<Integer> ids) {
+        for (Integer id : ids) {
+            invalidateCached(id);
+        }
+    }
+
+    /**
+     * Drops the cached {@code findAll} list of the entity type, if the type has a cache, after rows were added.
+     * Like {@link #invalidateCached(int)}, it is called by the caller once rows it inserted on its own
+     * connection are committed.
+     */
+    public void invalidateCachedList() {
+        EntityCache<T> cache = EntityCache.forType(type);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package DB;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * AsyncDAO runs the operations of a DAO in the background and returns their results as {@link CompletableFuture}s,
+ * so that the Swing event dispatch thread never waits for the database.
+ * Every operation runs on its own virtual thread. At most as many operations as the connection pool has
+ * connections run at the same time, across every AsyncDAO; the others wait on their virtual threads, which
+ * costs no platform thread, instead of queueing inside the pool until they time out.
+ * The futures complete on the background thread; Swing code continues on the event dispatch thread with
+ * {@code thenAcceptAsync(action, SwingUtilities::invokeLater)}.
+ *
+ * @param <T> The type of the entity.
+ */
+public class AsyncDAO<T> {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Semaphore PERMITS = new Semaphore(ConnectionFactory.getPool().getMaxSize(), true);
+
+    private final AbstractDAO<T> dao;
+
+    /**
+     * Constructs a new AsyncDAO over a DAO.
+     *
+     * @param dao The DAO whose operations are run in the background.
+     */
+    public AsyncDAO(AbstractDAO<T> dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Runs any database work in the background, holding one of the permits shared with the DAO operations.
+     * This is meant for work that spans several DAO calls or is not exposed by AsyncDAO, such as deletes
+     * or placing an order.
+     *
+     * @param task The work to run.
+     * @param <R>  The type of the result.
+     * @return A future completed with the result of the work, or exceptionally with what it threw,
+     * wrapped in a {@link CompletionException}.
+     */
+    public static <R> CompletableFuture<R> submit(Callable<R> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PERMITS.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                PERMITS.release();
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Gets the DAO whose operations are run in the background.
+     *
+     * @return The DAO.
+     */
+    public AbstractDAO<T> getDAO() {
+        return dao;
+    }
+
+    /**
+     * Retrieves a record by its ID in the background.
+     *
+     * @param id The ID of the record.
+     * @return A future completed with the entity, or with null if it was not found.
+     */
+    public CompletableFuture<T> findById(int id) {
+        return submit(() -> dao.findById(id));
+    }
+
+    /**
+     * Retrieves all records in the background.
+     *
+     * @return A future completed with the entities.
+     */
+    public CompletableFuture<List<T>> findAll() {
+        return submit(dao::findAll);
+    }
+
+    /**
+     * Retrieves the records with the given IDs in the background.
+     *
+     * @param ids The IDs of the entities.
+     * @return A future completed with the entities found, in no particular order.
+     */
+    public CompletableFuture<List<T>> findByIds(Collection<Integer> ids) {
+        return submit(() -> dao.findByIds(ids));
+    }
+
+    /**
+     * Retrieves the records of a criteria query in the background.
+     *
+     * @param query The criteria query.
+     * @return A future completed with the entities.
+     */
+    public CompletableFuture<List<T>> findBy(CriteriaQuery query) {
+        return submit(() -> dao.findBy(query));
+    }
+
+    /**
+     * Counts the records in the background.
+     *
+     * @return A future completed with the number of records.
+     */
+    public CompletableFuture<Integer> count() {
+        return submit(dao::count);
+    }
+
+    /**
+     * Inserts a new entity in the background.
+     *
+     * @param entity The entity to be inserted.
+     * @return A future completed with the inserted entity, or with null if it was not inserted.
+     */
+    public CompletableFuture<T> insert(T entity) {
+        return submit(() -> dao.insert(entity));
+    }
+
+    /**
+     * Inserts several entities in one transaction in the background.
+     *
+     * @param entities The entities to be inserted.
+     * @return A future completed with the inserted entities, or with null if the transaction was rolled back.
+     */
+    public CompletableFuture<List<T>> insertAll(Collection<T> entities) {
+        return submit(() -> dao.insertAll(entities));
+    }
+
+    /**
+     * Updates an existing entity in the background.
+     *
+     * @param entity The entity with updated values.
+     * @return A future completed with true if the changes were written or there were none, false if the update failed.
+     */
+    public CompletableFuture<Boolean> update(T entity) {
+        return submit(() -> dao.update(entity));
+    }
+
+    /**
+     * Applies a change to an entity and updates it in the background, applying the change again to a fresh
+     * copy of the entity when another writer updated it in between.
+     *
+     * @param id          The id of the entity.
+     * @param change      The change to apply to the entity.
+     * @param maxAttempts The maximum number of times the entity is read and updated, at least 1.
+     * @return A future completed with the updated entity, or with null if there is no entity with this id;
+     * completed exceptionally if the update failed.
+     * @see AbstractDAO#update(int, Consumer, int)
+     */
+    public CompletableFuture<T> update(int id, Consumer<? super T> change, int maxAttempts) {
+        return submit(() -> dao.update(id, change, maxAttempts));
+    }
+
+    /**
+     * Updates several entities in one transaction in the background.
+     *
+     * @param entities The entities with updated values.
+     * @return A future completed with true if every change was written, false otherwise.
+     */
+    public CompletableFuture<Boolean> updateAll(Collection<T> entities) {
+        return submit(() -> dao.updateAll(entities));
+    }
+}
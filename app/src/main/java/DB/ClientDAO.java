@@ -5,9 +5,10 @@ import java.util.List;
 
 /**
  * ClientDAO is a Data Access Object (DAO) class for managing {@link Client} entities.
- * It extends the generic {@link AbstractDAO} class and provides CRUD operations for Client objects.
+ * It extends {@link ClientGeneratedDAO}, the {@link AbstractDAO} generated for Client,
+ * which reads and writes it without reflection on every call, and provides CRUD operations for Client objects.
  */
-public class ClientDAO extends AbstractDAO<Client> {
+public class ClientDAO extends ClientGeneratedDAO {
 
     /**
      * Constructs a new ClientDAO instance.
@@ -40,18 +41,20 @@ public class ClientDAO extends AbstractDAO<Client> {
      * Updates an existing Client in the database.
      *
      * @param clientWithUpdatedValues The Client with updated values.
+     * @return True if the changes were written or there were none, false if the update failed.
      */
-    public void update(Client clientWithUpdatedValues) {
-        super.update(clientWithUpdatedValues);
+    public boolean update(Client clientWithUpdatedValues) {
+        return super.update(clientWithUpdatedValues);
     }
 
     /**
      * Deletes a Client from the database by its ID.
      *
      * @param id The ID of the Client to delete.
+     * @return True if the Client was deleted, false otherwise.
      */
-    public void delete(int id) {
-        super.delete(id);
+    public boolean delete(int id) {
+        return super.delete(id);
     }
 
     /**
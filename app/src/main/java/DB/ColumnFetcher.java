@@ -0,0 +1,181 @@
+package DB;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ColumnFetcher class reads the columns and rows of a table by name.
+ * Column names are read from the metadata of a query that returns no rows, and are cached per table
+ * and shared by every ColumnFetcher, so opening a window no longer scans the table to learn its columns.
+ * The cache lives until {@link #invalidate(String)} or {@link #invalidateAll()} is called after a schema change.
+ */
+public class ColumnFetcher {
+
+    private static final Logger LOGGER = Logger.getLogger(ColumnFetcher.class.getName());
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final Map<String, List<String>> SCHEMA_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Fetches column names and creates corresponding objects from the specified table.
+     * The table is read once; its column names come from the cache, or from the metadata of the same query.
+     *
+     * @param tableName The name of the table.
+     * @param type      The type of objects to create.
+     * @return A list of created objects.
+     */
+    public <T> List<T> fetchAndCreateObjects(String tableName, Class<T> type) {
+        List<T> objects = new ArrayList<>();
+        String query = "SELECT * FROM " + tableName;
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery(query);
+
+            List<String> columns = SCHEMA_CACHE.get(cacheKey(tableName));
+            if (columns == null) {
+                columns = readColumns(resultSet.getMetaData());
+                SCHEMA_CACHE.put(cacheKey(tableName), columns);
+            }
+
+            if (!columns.isEmpty()) {
+                List<T> createdObjects = createObjects(resultSet, type, columns);
+                objects.addAll(createdObjects);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while fetching columns and creating objects from the table " + tableName, e);
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+
+        return objects;
+    }
+
+    /**
+     * Streams the objects of the specified table from a forward-only cursor instead of building a list,
+     * so that large tables are read in constant memory. The stream must be closed to release its connection.
+     *
+     * @param tableName The name of the table.
+     * @param type      The type of objects to create.
+     * @return A stream of the created objects, empty if the table cannot be read.
+     */
+    public <T> Stream<T> streamObjects(String tableName, Class<T> type) {
+        RowMapper<T> rowMapper = RowMapper.forType(type);
+        try {
+            return CursorStreams.open("SELECT * FROM " + tableName, STREAM_FETCH_SIZE,
+                    resultSet -> rowMapper.bind(resultSet.getMetaData()), CursorStreams.ParameterBinder.NONE);
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while streaming objects from the table " + tableName, e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Fetches column names from the specified table.
+     * The first call for a table runs a query that matches no rows and reads only its metadata;
+     * later calls are answered from the schema cache.
+     *
+     * @param tableName The name of the table.
+     * @return A list of column names, empty if the table cannot be read.
+     */
+    public List<String> fetchColumns(String tableName) {
+        List<String> cached = SCHEMA_CACHE.get(cacheKey(tableName));
+        if (cached != null) {
+            return cached;
+        }
+        String query = "SELECT * FROM " + tableName + " WHERE 1 = 0";
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery(query);
+
+            List<String> columns = readColumns(resultSet.getMetaData());
+            SCHEMA_CACHE.put(cacheKey(tableName), columns);
+            return columns;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "An error occurred while fetching columns from the table " + tableName, e);
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Drops the cached column names of a table, so that they are read again on next use.
+     * This must be called after the table is altered.
+     *
+     * @param tableName The name of the table.
+     */
+    public static void invalidate(String tableName) {
+        SCHEMA_CACHE.remove(cacheKey(tableName));
+    }
+
+    /**
+     * Drops the cached column names of every table.
+     */
+    public static void invalidateAll() {
+        SCHEMA_CACHE.clear();
+    }
+
+    /**
+     * Reads the column names of a result set.
+     *
+     * @param metaData The metadata of the result set.
+     * @return The column names, in column order, as an unmodifiable list.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    private static List<String> readColumns(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnName(i));
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    private static String cacheKey(String tableName) {
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates objects of the specified type using the provided ResultSet and column names.
+     *
+     * @param resultSet The ResultSet containing data from the table.
+     * @param type      The type of objects to create.
+     * @param columns   The list of column names.
+     * @return A list of created objects.
+     */
+    private <T> List<T> createObjects(ResultSet resultSet, Class<T> type, List<String> columns) throws SQLException {
+        List<T> list = new ArrayList<>();
+        try {
+            list = RowMapper.forType(type).mapAll(resultSet, columns);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error creating objects: " + e.getMessage());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,150 @@
+package DB;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ConnectionFactory is a singleton class responsible for creating and managing database connections.
+ * Connections are lent out by a bounded {@link ConnectionPool}, so opening and closing a connection
+ * does not pay for a new handshake with the database server every time.
+ * It provides methods to get a connection and to close connections, statements, and result sets.
+ */
+public class ConnectionFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionFactory.class.getName());
+    /**
+     * The driver, URL, user and password default to the MySQL database of the application and can be
+     * overridden with the {@code db.driver}, {@code db.url}, {@code db.user} and {@code db.password}
+     * system properties, for example to run the benchmarks against an in-memory database.
+     */
+    private static final String DRIVER = System.getProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+    /**
+     * Prepared statements are cached per physical connection and prepared on the server, so that
+     * statements reused through the pool are neither rebuilt by the driver nor re-parsed by the server.
+     * Batched inserts are rewritten into multi-row INSERT statements, and statements with a fetch size
+     * read their rows through a server-side cursor instead of loading the whole result.
+     */
+    private static final String DBURL = System.getProperty("db.url", "jdbc:mysql://localhost:3306/schooldb"
+            + "?cachePrepStmts=true&useServerPrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048"
+            + "&rewriteBatchedStatements=true&useCursorFetch=true");
+    private static final String USER = System.getProperty("db.user", "root");
+    private static final String PASS = System.getProperty("db.password", "Pass1234!");
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_MAX_WAIT_MILLIS = 30_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 10 * 60_000;
+    /**
+     * Leak detection records where every connection is borrowed, which walks the stack on every borrow,
+     * so it is off unless the {@code db.pool.leakThresholdMillis} system property sets how long a connection
+     * may stay borrowed before it is reported. Cursor streams such as table exports legitimately hold a
+     * connection for minutes, so the threshold should exceed them.
+     */
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = Long.getLong("db.pool.leakThresholdMillis", 0);
+
+    private static ConnectionFactory singleInstance = new ConnectionFactory();
+
+    private final ConnectionPool pool;
+
+    /**
+     * Private constructor to load the database driver, create the connection pool and prevent instantiation.
+     */
+    private ConnectionFactory() {
+        try {
+            Class.forName(DRIVER);
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+        pool = new ConnectionPool(DBURL, USER, PASS, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_MAX_WAIT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS);
+        DAOMetrics.register(pool, "DB:type=ConnectionPool");
+    }
+
+    /**
+     * Borrows a database connection from the pool, recording how long the borrow took.
+     *
+     * @return A pooled {@link Connection} object, or null if no connection could be obtained.
+     */
+    private Connection createConnection() {
+        Connection connection = null;
+        try {
+            long start = System.nanoTime();
+            try {
+                connection = pool.borrow();
+                DAOMetrics.connectionAcquire().record(start, 1);
+            } catch (SQLException e) {
+                DAOMetrics.connectionAcquire().recordError(start);
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "An error occurred while trying to connect to the database", e);
+        }
+        return connection;
+    }
+
+    /**
+     * Provides a database connection from the pool.
+     *
+     * @return A {@link Connection} object.
+     */
+    public static Connection getConnection() {
+        return singleInstance.createConnection();
+    }
+
+    /**
+     * Gets the connection pool, mainly to read its active, idle and wait-time counters.
+     *
+     * @return The {@link ConnectionPool} used by the factory.
+     */
+    public static ConnectionPool getPool() {
+        return singleInstance.pool;
+    }
+
+    /**
+     * Closes a database connection. Pooled connections are returned to the pool rather than closed.
+     *
+     * @param connection The {@link Connection} to close.
+     */
+    public static void close(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "An error occurred while trying to close the connection", e);
+            }
+        }
+    }
+
+    /**
+     * Closes a SQL statement.
+     *
+     * @param statement The {@link Statement} to close.
+     */
+    public static void close(Statement statement) {
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "An error occurred while trying to close the statement", e);
+            }
+        }
+    }
+
+    /**
+     * Closes a ResultSet.
+     *
+     * @param resultSet The {@link ResultSet} to close.
+     */
+    public static void close(ResultSet resultSet) {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "An error occurred while trying to close the ResultSet", e);
+            }
+        }
+    }
+}
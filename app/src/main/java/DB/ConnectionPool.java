@@ -0,0 +1,572 @@
+package DB;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ConnectionPool keeps a bounded set of physical database connections open and lends them out.
+ * Borrowed connections are proxies whose {@code close()} hands the physical connection back to the pool
+ * instead of tearing it down. Idle connections above the minimum size are evicted after a timeout,
+ * connections are validated before being lent out and connections held for too long are reported
+ * together with the stack trace of the code that borrowed them.
+ * The pool counters are published over JMX through {@link ConnectionPoolMXBean}.
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService maintenance;
+    private int total;
+    private boolean shutdown;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    /**
+     * Creates a new pool and schedules its maintenance task, which fills the pool up to its minimum size.
+     *
+     * @param url                 The JDBC URL of the database.
+     * @param user                The database user.
+     * @param password            The database password.
+     * @param minSize             The number of connections kept open even when idle.
+     * @param maxSize             The maximum number of connections open at the same time.
+     * @param maxWaitMillis       How long a borrower waits for a free connection before failing.
+     * @param idleTimeoutMillis   How long a connection above the minimum size may stay idle before it is closed.
+     * @param leakThresholdMillis How long a connection may stay borrowed before it is reported as a leak, 0 to disable.
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintain, 0, MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if the pool is below its maximum size
+     * and waiting for a returned one otherwise.
+     *
+     * @return A validated {@link Connection} whose close() returns it to the pool.
+     * @throws SQLException If no connection becomes available in time or a new one cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        boolean waited = false;
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+            lock.lock();
+            try {
+                while (candidate == null && !create) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                    } else if (total < maxSize) {
+                        total++;
+                        create = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeoutCount.increment();
+                            throw new SQLException("Timed out after " + maxWaitMillis
+                                    + " ms waiting for a database connection (active=" + borrowed.size() + ")");
+                        }
+                        waited = true;
+                        try {
+                            available.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a database connection", e);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                candidate = open();
+            } else if (!isValid(candidate)) {
+                discard(candidate);
+                continue;
+            }
+            recordWait(start, waited);
+            return lend(candidate);
+        }
+    }
+
+    /**
+     * Opens a new physical connection for a slot that has already been counted in {@code total}.
+     *
+     * @return The new pooled connection.
+     * @throws SQLException If the connection cannot be opened.
+     */
+    private PooledConnection open() throws SQLException {
+        try {
+            PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+            createdCount.increment();
+            return pooled;
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that an idle connection is still usable before it is lent out.
+     *
+     * @param pooled The connection to validate.
+     * @return True if the connection answered the validation check.
+     */
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks a connection as borrowed and wraps it in a proxy for the caller.
+     *
+     * @param pooled The connection being lent out.
+     * @return The proxy handed to the caller.
+     */
+    private Connection lend(PooledConnection pooled) {
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        pooled.leakReported = false;
+        borrowed.add(pooled);
+        borrowCount.increment();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(pooled));
+    }
+
+    /**
+     * Takes a connection back from a borrower, resetting the state a borrower may have changed.
+     *
+     * @param pooled The connection being returned.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            pooled.physical.clearWarnings();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding a connection that could not be reset", e);
+            discard(pooled);
+            return;
+        }
+
+        pooled.lastUsed = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (shutdown) {
+                total--;
+                closeQuietly(pooled);
+                return;
+            }
+            idle.addFirst(pooled);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes a connection and frees its slot in the pool.
+     *
+     * @param pooled The connection to throw away.
+     */
+    private void discard(PooledConnection pooled) {
+        closeQuietly(pooled);
+        evictedCount.increment();
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the physical connection, logging any failure.
+     *
+     * @param pooled The connection to close.
+     */
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "An error occurred while closing a pooled connection", e);
+        }
+    }
+
+    /**
+     * Updates the wait-time counters for a successful borrow.
+     *
+     * @param start  The time the borrow started, in nanoseconds.
+     * @param waited Whether the borrower had to wait for a connection to be returned.
+     */
+    private void recordWait(long start, boolean waited) {
+        totalWaitNanos.add(System.nanoTime() - start);
+        if (waited) {
+            waitCount.increment();
+        }
+    }
+
+    /**
+     * Periodic task that evicts connections idle for too long, refills the pool up to its minimum size
+     * and reports connections that have been borrowed for longer than the leak threshold.
+     */
+    private void maintain() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool maintenance failed", e);
+        }
+    }
+
+    /**
+     * Closes the idle connections that have not been used within the idle timeout, never going below the minimum size.
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            while (total > minSize && !idle.isEmpty() && now - idle.peekLast().lastUsed > idleTimeoutMillis) {
+                PooledConnection oldest = idle.pollLast();
+                total--;
+                evictedCount.increment();
+                closeQuietly(oldest);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens connections until the pool holds at least its minimum size.
+     */
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (shutdown || total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection pooled = open();
+                pooled.lastUsed = System.currentTimeMillis();
+                lock.lock();
+                try {
+                    idle.addLast(pooled);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "An error occurred while filling the connection pool", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Logs every connection borrowed for longer than the leak threshold, once per borrow.
+     */
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                LOGGER.log(Level.WARNING, "Possible connection leak: connection borrowed "
+                        + (now - pooled.borrowedAt) + " ms ago has not been returned", pooled.borrowSite);
+            }
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the maintenance task. Borrowed connections are closed when returned.
+     */
+    public void shutdown() {
+        maintenance.shutdownNow();
+        lock.lock();
+        try {
+            shutdown = true;
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.pollFirst());
+                total--;
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return The number of active connections.
+     */
+    @Override
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    @Override
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum number of connections the pool opens at the same time.
+     *
+     * @return The maximum pool size.
+     */
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of physical connections currently open or being opened.
+     *
+     * @return The total number of connections.
+     */
+    @Override
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of successful borrows since the pool was created.
+     *
+     * @return The borrow count.
+     */
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * Gets the number of borrows that had to wait for another borrower to return a connection.
+     *
+     * @return The number of borrows that waited.
+     */
+    @Override
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * Gets the total time spent acquiring connections, including validation and opening new ones.
+     *
+     * @return The total wait time in nanoseconds.
+     */
+    @Override
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    /**
+     * Gets the number of borrows that failed because no connection became available in time.
+     *
+     * @return The timeout count.
+     */
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * Gets the number of physical connections opened since the pool was created.
+     *
+     * @return The number of connections created.
+     */
+    @Override
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    /**
+     * Gets the number of physical connections closed because they were idle, invalid or broken.
+     *
+     * @return The number of connections evicted.
+     */
+    @Override
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * Returns a one-line summary of the pool counters.
+     *
+     * @return The pool statistics.
+     */
+    @Override
+    public String toString() {
+        return "ConnectionPool{active=" + getActiveCount() + ", idle=" + getIdleCount() + ", total=" + getTotalCount()
+                + ", borrows=" + getBorrowCount() + ", waits=" + getWaitCount()
+                + ", waitMillis=" + TimeUnit.NANOSECONDS.toMillis(getTotalWaitNanos())
+                + ", timeouts=" + getTimeoutCount() + ", created=" + getCreatedCount()
+                + ", evicted=" + getEvictedCount() + '}';
+    }
+
+    /**
+     * A physical connection together with the bookkeeping the pool keeps about it.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+    }
+
+    /**
+     * Forwards calls on a borrowed connection to the physical one, turning close() into a return to the pool.
+     * The statements it creates are handed out through the {@link StatementTracer}.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")) {
+                        String sql = args != null && args[0] instanceof String text ? text : null;
+                        return StatementTracer.getInstance().trace((Statement) result, sql);
+                    }
+                    return result;
+            }
+        }
+    }
+}
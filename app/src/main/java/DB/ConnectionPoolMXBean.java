@@ -0,0 +1,78 @@
+package DB;
+
+/**
+ * The management interface of {@link ConnectionPool}, under which the pool used by {@link ConnectionFactory}
+ * is published over JMX as {@code DB:type=ConnectionPool}.
+ */
+public interface ConnectionPoolMXBean {
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return The number of active connections.
+     */
+    int getActiveCount();
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    int getIdleCount();
+
+    /**
+     * Gets the maximum number of connections the pool opens at the same time.
+     *
+     * @return The maximum pool size.
+     */
+    int getMaxSize();
+
+    /**
+     * Gets the number of physical connections currently open or being opened.
+     *
+     * @return The total number of connections.
+     */
+    int getTotalCount();
+
+    /**
+     * Gets the number of successful borrows since the pool was created.
+     *
+     * @return The borrow count.
+     */
+    long getBorrowCount();
+
+    /**
+     * Gets the number of borrows that had to wait for another borrower to return a connection.
+     *
+     * @return The number of borrows that waited.
+     */
+    long getWaitCount();
+
+    /**
+     * Gets the total time spent acquiring connections, including validation and opening new ones.
+     *
+     * @return The total wait time in nanoseconds.
+     */
+    long getTotalWaitNanos();
+
+    /**
+     * Gets the number of borrows that failed because no connection became available in time.
+     *
+     * @return The timeout count.
+     */
+    long getTimeoutCount();
+
+    /**
+     * Gets the number of physical connections opened since the pool was created.
+     *
+     * @return The number of connections created.
+     */
+    long getCreatedCount();
+
+    /**
+     * Gets the number of physical connections closed because they were idle, invalid or broken.
+     *
+     * @return The number of connections evicted.
+     */
+    long getEvictedCount();
+}
@@ -0,0 +1,172 @@
+package DB;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CriteriaQuery describes which rows of an entity {@link AbstractDAO#findBy(CriteriaQuery)} reads and how:
+ * a {@link Criterion} filtering the rows, the columns they are sorted on, a maximum number of rows, and
+ * the columns read. Reading only the columns a caller shows, such as the id and name of the clients in a
+ * picker, saves transferring and mapping the others; the columns not read are left at their default value
+ * in the returned entities, and the id and, for a versioned entity, the version are always read so that the
+ * entities can still be updated.
+ * CriteriaQuery is immutable; its methods return modified copies.
+ */
+public final class CriteriaQuery {
+
+    /**
+     * The query reading every column of every row, in no particular order.
+     */
+    public static final CriteriaQuery ALL = new CriteriaQuery(null, List.of(), 0, List.of());
+
+    private final Criterion criterion;
+    private final List<SortColumn> sortColumns;
+    private final int limit;
+    private final List<String> columns;
+
+    private CriteriaQuery(Criterion criterion, List<SortColumn> sortColumns, int limit, List<String> columns) {
+        this.criterion = criterion;
+        this.sortColumns = sortColumns;
+        this.limit = limit;
+        this.columns = columns;
+    }
+
+    /**
+     * Returns a copy of this query filtered by a criterion, replacing any earlier one.
+     *
+     * @param criterion The criterion, or null to read every row.
+     * @return The modified query.
+     */
+    public CriteriaQuery where(Criterion criterion) {
+        return new CriteriaQuery(criterion, sortColumns, limit, columns);
+    }
+
+    /**
+     * Returns a copy of this query also sorted on a column, after the columns it is already sorted on.
+     *
+     * @param column    The column to sort on.
+     * @param ascending True for ascending order, false for descending order.
+     * @return The modified query.
+     */
+    public CriteriaQuery orderBy(String column, boolean ascending) {
+        List<SortColumn> sorted = new ArrayList<>(sortColumns);
+        sorted.add(new SortColumn(column, ascending));
+        return new CriteriaQuery(criterion, Collections.unmodifiableList(sorted), limit, columns);
+    }
+
+    /**
+     * Returns a copy of this query reading at most a number of rows.
+     *
+     * @param limit The maximum number of rows, or 0 for no maximum.
+     * @return The modified query.
+     */
+    public CriteriaQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        return new CriteriaQuery(criterion, sortColumns, limit, columns);
+    }
+
+    /**
+     * Returns a copy of this query reading only some columns, and the id and, if the entity is versioned, the version.
+     *
+     * @param columns The columns to read, or none to read every column.
+     * @return The modified query.
+     */
+    public CriteriaQuery select(String... columns) {
+        return new CriteriaQuery(criterion, sortColumns, limit, List.copyOf(Arrays.asList(columns)));
+    }
+
+    /**
+     * Gets the criterion filtering the rows.
+     *
+     * @return The criterion, or null when every row is read.
+     */
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * Gets the maximum number of rows read.
+     *
+     * @return The limit, or 0 for no maximum.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the columns read.
+     *
+     * @return The columns, empty when every column is read.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Builds the SELECT statement of the query, checking its columns and values against the entity.
+     *
+     * @param statements The statements of the entity, which give its table and version column.
+     * @param rowMapper  The mapper of the entity, whose properties give the columns.
+     * @param parameters The parameters of the statement, added to in order.
+     * @return The SQL query string.
+     * @throws IllegalArgumentException If the query names an unknown column or a value does not fit its column.
+     */
+    String toSql(StatementCatalog<?> statements, RowMapper<?> rowMapper, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        if (columns.isEmpty()) {
+            sql.append('*');
+        } else {
+            List<String> selected = new ArrayList<>();
+            RowMapper.Property id = rowMapper.getProperty("id");
+            if (id != null) {
+                selected.add(id.getName());
+            }
+            if (statements.getVersionProperty() != null) {
+                selected.add(statements.getVersionProperty().getName());
+            }
+            for (String column : columns) {
+                String name = checkColumn(rowMapper, column);
+                if (!selected.contains(name)) {
+                    selected.add(name);
+                }
+            }
+            sql.append(String.join(", ", selected));
+        }
+        sql.append(" FROM ").append(statements.getTableName());
+        if (criterion != null) {
+            sql.append(" WHERE ");
+            criterion.appendTo(sql, parameters, rowMapper);
+        }
+        for (int i = 0; i < sortColumns.size(); i++) {
+            SortColumn sortColumn = sortColumns.get(i);
+            sql.append(i == 0 ? " ORDER BY " : ", ").append(checkColumn(rowMapper, sortColumn.column()))
+                    .append(sortColumn.ascending() ? " ASC" : " DESC");
+        }
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            parameters.add(limit);
+        }
+        return sql.toString();
+    }
+
+    private static String checkColumn(RowMapper<?> rowMapper, String column) {
+        RowMapper.Property property = rowMapper.getProperty(column);
+        if (property == null) {
+            throw new IllegalArgumentException("There is no column " + column);
+        }
+        return property.getName();
+    }
+
+    /**
+     * A column the rows are sorted on.
+     *
+     * @param column    The column.
+     * @param ascending True for ascending order.
+     */
+    private record SortColumn(String column, boolean ascending) {
+    }
+}
@@ -0,0 +1,263 @@
+package DB;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Criterion is a condition on the columns of an entity, turned by the DAOs into a WHERE clause with bound
+ * parameters: a comparison of a column with a value, a range, a list of values or a text prefix, or several
+ * conditions joined by AND or OR. Columns are checked against the entity and values against the column type
+ * when the query is built, so only known column names are ever written into the SQL.
+ * Criterion is immutable.
+ */
+public final class Criterion {
+
+    private enum Kind {
+        EQUAL(" = ?"),
+        LESS(" < ?"),
+        LESS_OR_EQUAL(" <= ?"),
+        GREATER(" > ?"),
+        GREATER_OR_EQUAL(" >= ?"),
+        BETWEEN(" BETWEEN ? AND ?"),
+        IN(" IN "),
+        PREFIX(" LIKE ?"),
+        IS_NULL(" IS NULL"),
+        AND(" AND "),
+        OR(" OR ");
+
+        private final String sql;
+
+        Kind(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final Kind kind;
+    private final String column;
+    private final List<Object> values;
+    private final List<Criterion> children;
+
+    private Criterion(Kind kind, String column, List<Object> values, List<Criterion> children) {
+        this.kind = kind;
+        this.column = column;
+        this.values = values;
+        this.children = children;
+    }
+
+    private static Criterion compare(Kind kind, String column, Object... values) {
+        for (Object value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("Null value for " + column);
+            }
+        }
+        return new Criterion(kind, column, List.of(values), List.of());
+    }
+
+    /**
+     * Matches the rows whose column equals a value, or is NULL if the value is null.
+     *
+     * @param column The column.
+     * @param value  The value, of the type of the column, or null.
+     * @return The criterion.
+     */
+    public static Criterion eq(String column, Object value) {
+        return value == null ? new Criterion(Kind.IS_NULL, column, List.of(), List.of()) : compare(Kind.EQUAL, column, value);
+    }
+
+    /**
+     * Matches the rows whose column is less than a value.
+     *
+     * @param column The column.
+     * @param value  The value, of the type of the column.
+     * @return The criterion.
+     */
+    public static Criterion lt(String column, Object value) {
+        return compare(Kind.LESS, column, value);
+    }
+
+    /**
+     * Matches the rows whose column is less than or equal to a value.
+     *
+     * @param column The column.
+     * @param value  The value, of the type of the column.
+     * @return The criterion.
+     */
+    public static Criterion le(String column, Object value) {
+        return compare(Kind.LESS_OR_EQUAL, column, value);
+    }
+
+    /**
+     * Matches the rows whose column is greater than a value.
+     *
+     * @param column The column.
+     * @param value  The value, of the type of the column.
+     * @return The criterion.
+     */
+    public static Criterion gt(String column, Object value) {
+        return compare(Kind.GREATER, column, value);
+    }
+
+    /**
+     * Matches the rows whose column is greater than or equal to a value.
+     *
+     * @param column The column.
+     * @param value  The value, of the type of the column.
+     * @return The criterion.
+     */
+    public static Criterion ge(String column, Object value) {
+        return compare(Kind.GREATER_OR_EQUAL, column, value);
+    }
+
+    /**
+     * Matches the rows whose column lies between two values, both included.
+     *
+     * @param column The column.
+     * @param low    The lowest value, of the type of the column.
+     * @param high   The highest value, of the type of the column.
+     * @return The criterion.
+     */
+    public static Criterion between(String column, Object low, Object high) {
+        return compare(Kind.BETWEEN, column, low, high);
+    }
+
+    /**
+     * Matches the rows whose column equals one of several values. An empty list matches no row.
+     *
+     * @param column The column.
+     * @param values The values, of the type of the column; duplicates are sent once.
+     * @return The criterion.
+     */
+    public static Criterion in(String column, Collection<?> values) {
+        return compare(Kind.IN, column, new LinkedHashSet<>(values).toArray());
+    }
+
+    /**
+     * Matches the rows whose text column starts with a prefix. The LIKE wildcards in the prefix match
+     * themselves, so the prefix is taken literally.
+     *
+     * @param column The column, which must hold text.
+     * @param prefix The prefix.
+     * @return The criterion.
+     */
+    public static Criterion startsWith(String column, String prefix) {
+        return compare(Kind.PREFIX, column, prefix);
+    }
+
+    /**
+     * Matches the rows matching every one of several criteria. No criteria match every row.
+     *
+     * @param criteria The criteria.
+     * @return The criterion.
+     */
+    public static Criterion and(Criterion... criteria) {
+        return new Criterion(Kind.AND, null, List.of(), List.copyOf(Arrays.asList(criteria)));
+    }
+
+    /**
+     * Matches the rows matching at least one of several criteria. No criteria match no row.
+     *
+     * @param criteria The criteria.
+     * @return The criterion.
+     */
+    public static Criterion or(Criterion... criteria) {
+        return new Criterion(Kind.OR, null, List.of(), List.copyOf(Arrays.asList(criteria)));
+    }
+
+    /**
+     * Returns a criterion matching the rows matching both this criterion and another.
+     *
+     * @param other The other criterion.
+     * @return The combined criterion.
+     */
+    public Criterion and(Criterion other) {
+        return join(Kind.AND, other);
+    }
+
+    /**
+     * Returns a criterion matching the rows matching this criterion or another.
+     *
+     * @param other The other criterion.
+     * @return The combined criterion.
+     */
+    public Criterion or(Criterion other) {
+        return join(Kind.OR, other);
+    }
+
+    private Criterion join(Kind joinKind, Criterion other) {
+        List<Criterion> joined = new ArrayList<>();
+        if (kind == joinKind) {
+            joined.addAll(children);
+        } else {
+            joined.add(this);
+        }
+        joined.add(other);
+        return new Criterion(joinKind, null, List.of(), Collections.unmodifiableList(joined));
+    }
+
+    /**
+     * Writes the criterion as an SQL condition, checking its columns and values against the entity.
+     * IN lists are padded to a power of two by repeating their last value, so that only a few statement
+     * shapes are prepared however many values are asked for.
+     *
+     * @param sql        The SQL being built.
+     * @param parameters The parameters of the SQL, added to in order.
+     * @param rowMapper  The mapper of the entity, whose properties give the columns.
+     * @throws IllegalArgumentException If the criterion names an unknown column or a value does not fit its column.
+     */
+    void appendTo(StringBuilder sql, List<Object> parameters, RowMapper<?> rowMapper) {
+        if (kind == Kind.AND || kind == Kind.OR) {
+            if (children.isEmpty()) {
+                sql.append(kind == Kind.AND ? "1 = 1" : "1 = 0");
+                return;
+            }
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    sql.append(kind.sql);
+                }
+                sql.append('(');
+                children.get(i).appendTo(sql, parameters, rowMapper);
+                sql.append(')');
+            }
+            return;
+        }
+
+        RowMapper.Property property = rowMapper.getProperty(column);
+        if (property == null) {
+            throw new IllegalArgumentException("There is no column " + column);
+        }
+        Class<?> columnType = RowMapper.boxed(property.getType());
+        for (Object value : values) {
+            if (!columnType.isInstance(value)) {
+                throw new IllegalArgumentException("Invalid value for " + property.getName() + ": " + value);
+            }
+        }
+
+        if (kind == Kind.IN) {
+            if (values.isEmpty()) {
+                sql.append("1 = 0");
+                return;
+            }
+            int count = Integer.highestOneBit(values.size() * 2 - 1);
+            sql.append(property.getName()).append(kind.sql).append('(');
+            for (int i = 0; i < count; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                parameters.add(values.get(Math.min(i, values.size() - 1)));
+            }
+            sql.append(')');
+        } else if (kind == Kind.PREFIX) {
+            if (columnType != String.class) {
+                throw new IllegalArgumentException(property.getName() + " does not hold text");
+            }
+            String prefix = (String) values.get(0);
+            sql.append(property.getName()).append(kind.sql);
+            parameters.add(prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        } else {
+            sql.append(property.getName()).append(kind.sql);
+            parameters.addAll(values);
+        }
+    }
+}
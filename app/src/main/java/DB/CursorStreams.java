@@ -0,0 +1,106 @@
+package DB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * CursorStreams exposes the rows of a query as a lazily read {@link Stream}.
+ * The query runs on a forward-only, read-only cursor that fetches a bounded number of rows at a time,
+ * so a whole table can be processed in constant memory. The connection, statement and result set stay
+ * open until the stream is closed, so streams must be used in a try-with-resources block.
+ */
+final class CursorStreams {
+
+    private CursorStreams() {
+    }
+
+    /**
+     * Creates the reader for the rows of a result set once it has been opened.
+     *
+     * @param <T> The type of the objects read from each row.
+     */
+    @FunctionalInterface
+    interface ReaderFactory<T> {
+        RowReader<T> create(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Opens a cursor over a query and wraps it in a stream.
+     *
+     * @param query         The SELECT query to run.
+     * @param fetchSize     The number of rows fetched from the server at a time.
+     * @param readerFactory Creates the reader that maps each row.
+     * @param binder        Binds the query parameters, may do nothing.
+     * @param <T>           The type of the objects read from each row.
+     * @return A stream of the rows; closing it releases the connection.
+     * @throws SQLException If the query cannot be run.
+     */
+    static <T> Stream<T> open(String query, int fetchSize, ReaderFactory<T> readerFactory,
+                              ParameterBinder binder) throws SQLException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ConnectionFactory.getConnection();
+            if (connection == null) {
+                throw new SQLException("No database connection available");
+            }
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            binder.bind(statement);
+            resultSet = statement.executeQuery();
+            RowReader<T> reader = readerFactory.create(resultSet);
+
+            Connection openConnection = connection;
+            PreparedStatement openStatement = statement;
+            ResultSet openResultSet = resultSet;
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!openResultSet.next()) {
+                            return false;
+                        }
+                        action.accept(reader.read(openResultSet));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                ConnectionFactory.close(openResultSet);
+                ConnectionFactory.close(openStatement);
+                ConnectionFactory.close(openConnection);
+            });
+        } catch (SQLException | RuntimeException e) {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Binds the parameters of a streamed query.
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+
+        /**
+         * A binder for queries without parameters.
+         */
+        ParameterBinder NONE = statement -> {
+        };
+
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,220 @@
+package DB;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DAOMetrics records how long every DAO operation takes, per entity type: a latency histogram with
+ * percentiles, the rows read or written and the failures. It also records how long borrowing a pooled
+ * connection takes. Every recorded operation is published as a JMX MXBean with its figures since the start,
+ * and {@link #startReporting(Duration)} periodically logs the calls made since the previous log.
+ * The metrics of an entity type are shared by every DAO instance of that type.
+ */
+public final class DAOMetrics {
+
+    /**
+     * The DAO operations that are timed.
+     */
+    public enum Operation {
+        FIND_ALL("findAll"),
+        FIND_BY_ID("findById"),
+        FIND_BY_IDS("findByIds"),
+        FIND_BY("findBy"),
+        FIND_RANGE("findRange"),
+        FIND_PAGE("findPage"),
+        COUNT("count"),
+        INSERT("insert"),
+        INSERT_ALL("insertAll"),
+        UPDATE("update"),
+        UPDATE_ALL("updateAll"),
+        DELETE("delete");
+
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name of the operation, as the DAO method is named.
+         *
+         * @return The operation name.
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(DAOMetrics.class.getName());
+    private static final String DOMAIN = "DB";
+    private static final Map<String, DAOMetrics> METRICS = new ConcurrentHashMap<>();
+    private static final OperationMetrics CONNECTION_ACQUIRE = register(new OperationMetrics("Connection", "acquire"),
+            DOMAIN + ":type=Connection,operation=acquire");
+
+    private static ScheduledExecutorService reporter;
+    private static ScheduledFuture<?> report;
+
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+
+    private DAOMetrics(String entity) {
+        for (Operation operation : Operation.values()) {
+            OperationMetrics metrics = new OperationMetrics(entity, operation.getName());
+            operations.put(operation, metrics);
+            register(metrics, DOMAIN + ":type=DAO,entity=" + entity + ",operation=" + operation.getName());
+        }
+    }
+
+    /**
+     * Gets the metrics of an entity type, registering their MXBeans on first use.
+     *
+     * @param type The entity class.
+     * @return The metrics of the entity type.
+     */
+    public static DAOMetrics forType(Class<?> type) {
+        return METRICS.computeIfAbsent(type.getSimpleName(), DAOMetrics::new);
+    }
+
+    /**
+     * Gets the metrics of one operation of the entity type.
+     *
+     * @param operation The operation.
+     * @return The operation metrics.
+     */
+    public OperationMetrics get(Operation operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Records a successful call of an operation.
+     *
+     * @param operation  The operation.
+     * @param startNanos The {@link System#nanoTime()} when the call started.
+     * @param rowCount   The number of rows read or written.
+     */
+    void record(Operation operation, long startNanos, int rowCount) {
+        operations.get(operation).record(startNanos, rowCount);
+    }
+
+    /**
+     * Records a failed call of an operation.
+     *
+     * @param operation  The operation.
+     * @param startNanos The {@link System#nanoTime()} when the call started.
+     */
+    void recordError(Operation operation, long startNanos) {
+        operations.get(operation).recordError(startNanos);
+    }
+
+    /**
+     * Gets the metrics of borrowing a connection from the pool.
+     *
+     * @return The connection acquire metrics.
+     */
+    public static OperationMetrics connectionAcquire() {
+        return CONNECTION_ACQUIRE;
+    }
+
+    /**
+     * Gets the metrics of every operation that has been called at least once.
+     *
+     * @return The operation metrics, connection acquire first.
+     */
+    public static List<OperationMetrics> snapshot() {
+        List<OperationMetrics> snapshot = new ArrayList<>();
+        snapshot.add(CONNECTION_ACQUIRE);
+        for (DAOMetrics metrics : METRICS.values()) {
+            for (OperationMetrics operation : metrics.operations.values()) {
+                if (operation.getCount() > 0) {
+                    snapshot.add(operation);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Starts logging the calls of every operation periodically, replacing any previous schedule.
+     * Each log covers only the calls made since the previous one, so a slow spell shows in its own interval
+     * instead of fading into the figures since the start.
+     *
+     * @param period The time between two snapshots.
+     */
+    public static synchronized void startReporting(Duration period) {
+        if (reporter == null) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dao-metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (report != null) {
+            report.cancel(false);
+        }
+        report = reporter.scheduleAtFixedRate(DAOMetrics::logSnapshot, period.toMillis(), period.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic snapshots.
+     */
+    public static synchronized void stopReporting() {
+        if (report != null) {
+            report.cancel(false);
+            report = null;
+        }
+    }
+
+    private static void logSnapshot() {
+        Collection<OperationMetrics> snapshot = snapshot();
+        StringBuilder sb = new StringBuilder("DAO metrics for the last interval:");
+        int reported = 0;
+        for (OperationMetrics metrics : snapshot) {
+            String interval = metrics.reportInterval();
+            if (interval != null) {
+                sb.append(System.lineSeparator()).append("  ").append(interval);
+                reported++;
+            }
+        }
+        if (reported == 0) {
+            sb.append(" no calls");
+        }
+        LOGGER.log(Level.INFO, sb.toString());
+    }
+
+    /**
+     * Registers an MXBean with the platform MBean server, logging instead of failing if it cannot be registered.
+     *
+     * @param mbean The MXBean.
+     * @param name  The object name to register it under.
+     * @param <M>   The type of the MXBean.
+     * @return The MXBean.
+     */
+    static <M> M register(M mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not register the MBean " + name + ": " + e.getMessage());
+        }
+        return mbean;
+    }
+}
@@ -0,0 +1,129 @@
+package DB;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * DirtyTracker remembers the column values of the entities loaded or written through the DAOs, so that an
+ * update only writes the columns that changed since. Snapshots are kept per entity type, shared by every DAO
+ * instance of that type, and held weakly so that they disappear together with the entities.
+ * Entities are told apart by {@code equals}/{@code hashCode}, which the model classes inherit from Object.
+ * The column values are read through the properties of the {@link RowMapper}, or by a generated reader
+ * calling the getters directly when the DAO of the type provides one.
+ *
+ * @param <T> The type of the entity.
+ */
+final class DirtyTracker<T> {
+
+    /**
+     * The mask returned when every column has to be written.
+     */
+    static final long ALL_COLUMNS = -1L;
+
+    private static final Map<Class<?>, DirtyTracker<?>> TRACKERS = new ConcurrentHashMap<>();
+
+    private final List<RowMapper.Property> properties;
+    private final Function<T, Object[]> valueReader;
+    private final long allColumnsMask;
+    private final Map<T, Object[]> snapshots = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private DirtyTracker(StatementCatalog<T> statements, Function<T, Object[]> valueReader) {
+        this.properties = statements.getValueProperties();
+        this.valueReader = valueReader;
+        this.allColumnsMask = properties.size() >= Long.SIZE ? ALL_COLUMNS : (1L << properties.size()) - 1;
+    }
+
+    /**
+     * Gets the tracker shared by the DAOs of an entity type.
+     *
+     * @param type        The entity class.
+     * @param statements  The statement catalog of the entity, giving the tracked columns.
+     * @param valueReader Reads the values of the tracked columns of an entity in the order of
+     *                    {@link StatementCatalog#getValueProperties()}, or null to read them through the properties.
+     * @param <T>         The type of the entity.
+     * @return The tracker of the entity type.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> DirtyTracker<T> forType(Class<T> type, StatementCatalog<T> statements, Function<T, Object[]> valueReader) {
+        return (DirtyTracker<T>) TRACKERS.computeIfAbsent(type, key -> new DirtyTracker<>(statements, valueReader));
+    }
+
+    /**
+     * Records the current column values of an entity as its clean state.
+     *
+     * @param entity The entity that now matches its row.
+     */
+    void snapshot(T entity) {
+        if (allColumnsMask == ALL_COLUMNS) {
+            return;
+        }
+        snapshots.put(entity, values(entity));
+    }
+
+    /**
+     * Records the current column values of several entities as their clean state.
+     *
+     * @param entities The entities that now match their rows.
+     */
+    void snapshotAll(Collection<T> entities) {
+        for (T entity : entities) {
+            snapshot(entity);
+        }
+    }
+
+    /**
+     * Computes which columns of an entity differ from its last snapshot.
+     *
+     * @param entity The entity about to be updated.
+     * @return A bit mask with bit i set when the i-th value column changed, {@link #allColumns()} when the
+     * entity has no snapshot, and 0 when nothing changed.
+     */
+    long dirtyColumns(T entity) {
+        Object[] snapshot = snapshots.get(entity);
+        if (snapshot == null) {
+            return allColumnsMask;
+        }
+        Object[] values = values(entity);
+        long mask = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            if (!sameValue(snapshot[i], values[i])) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private Object[] values(T entity) {
+        if (valueReader != null) {
+            return valueReader.apply(entity);
+        }
+        Object[] values = new Object[properties.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = properties.get(i).get(entity);
+        }
+        return values;
+    }
+
+    /**
+     * Gets the mask with every value column set.
+     *
+     * @return The mask of all columns.
+     */
+    long allColumns() {
+        return allColumnsMask;
+    }
+
+    private static boolean sameValue(Object before, Object after) {
+        if (before instanceof BigDecimal decimal && after instanceof BigDecimal other) {
+            return decimal.compareTo(other) == 0;
+        }
+        return Objects.equals(before, after);
+    }
+}
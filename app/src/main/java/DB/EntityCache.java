@@ -0,0 +1,378 @@
+package DB;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EntityCache is an optional second-level cache in front of {@link AbstractDAO#findById(int)} and
+ * {@link AbstractDAO#findAll()}. A cache is enabled per entity type, usually at startup, and is then shared by
+ * every DAO instance of that type; types without a cache are always read from the database.
+ * <p>
+ * The cache holds at most a fixed number of entities, each for a limited time. When it is full, a newly loaded
+ * entity only replaces the least recently used one if it has been asked for more often, as estimated by a small
+ * frequency sketch of recent lookups. A burst of one-off lookups therefore cannot flush the entities that are
+ * read over and over, such as the products used during order entry.
+ * <p>
+ * The cache stores and hands out copies, so changing a returned entity without saving it never alters the cache.
+ * The DAOs invalidate an entity when they write it, and the cached {@code findAll} list on any write, once the
+ * write is committed. Every invalidation starts a new generation of the cache, and an entity loaded by a read
+ * that started in an earlier generation is not stored, since it may have been read before the write.
+ *
+ * @param <T> The type of the entity.
+ */
+public final class EntityCache<T> {
+
+    private static final Map<Class<?>, EntityCache<?>> CACHES = new ConcurrentHashMap<>();
+
+    private final RowMapper<T> rowMapper;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<Integer, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private Entry<List<T>> allEntities;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private EntityCache(Class<T> type, int maximumSize, Duration ttl) {
+        this.rowMapper = RowMapper.forType(type);
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Enables the cache of an entity type, replacing any cache it already had.
+     *
+     * @param type        The entity class.
+     * @param maximumSize The maximum number of entities kept.
+     * @param ttl         How long an entity is kept after it was loaded.
+     * @param <T>         The type of the entity.
+     * @return The new cache.
+     */
+    public static <T> EntityCache<T> enable(Class<T> type, int maximumSize, Duration ttl) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache time to live must be positive");
+        }
+        EntityCache<T> cache = new EntityCache<>(type, maximumSize, ttl);
+        CACHES.put(type, cache);
+        return cache;
+    }
+
+    /**
+     * Disables the cache of an entity type, dropping everything it held.
+     *
+     * @param type The entity class.
+     */
+    public static void disable(Class<?> type) {
+        CACHES.remove(type);
+    }
+
+    /**
+     * Gets the cache of an entity type.
+     *
+     * @param type The entity class.
+     * @param <T>  The type of the entity.
+     * @return The cache, or null if the type has none.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityCache<T> forType(Class<T> type) {
+        return (EntityCache<T>) CACHES.get(type);
+    }
+
+    /**
+     * Looks up an entity by id.
+     *
+     * @param id The id of the entity.
+     * @return A copy of the cached entity, or null if it is not cached or has expired.
+     */
+    synchronized T get(int id) {
+        sketch.increment(id);
+        Entry<T> entry = entries.get(id);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(id);
+            expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(entry.value);
+    }
+
+    /**
+     * Gets the current generation of the cache, to be read before loading entities that are then stored.
+     *
+     * @return The generation, which changes on every invalidation.
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores an entity just loaded from the database, unless the cache was invalidated since the load started.
+     * When the cache is full, the entity is only admitted if it is asked for more often than the least recently
+     * used entity, which it then replaces.
+     *
+     * @param id         The id of the entity.
+     * @param entity     The entity.
+     * @param generation The generation of the cache when the load started.
+     */
+    synchronized void put(int id, T entity, long generation) {
+        if (generation != this.generation) {
+            rejections.increment();
+            return;
+        }
+        if (!entries.containsKey(id) && entries.size() >= maximumSize) {
+            Iterator<Map.Entry<Integer, Entry<T>>> eldest = entries.entrySet().iterator();
+            Map.Entry<Integer, Entry<T>> victim = eldest.next();
+            if (!isExpired(victim.getValue()) && sketch.frequency(id) <= sketch.frequency(victim.getKey())) {
+                rejections.increment();
+                return;
+            }
+            eldest.remove();
+            evictions.increment();
+        }
+        entries.put(id, new Entry<>(copy(entity), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Gets the cached result of {@code findAll}.
+     *
+     * @return Copies of every entity, or null if the list is not cached or has expired.
+     */
+    synchronized List<T> getAll() {
+        if (allEntities != null && isExpired(allEntities)) {
+            allEntities = null;
+            expirations.increment();
+        }
+        if (allEntities == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copyAll(allEntities.value);
+    }
+
+    /**
+     * Stores the result of {@code findAll}, unless the cache was invalidated since the load started.
+     * Lists larger than the cache are not kept.
+     *
+     * @param entities   Every entity of the table.
+     * @param generation The generation of the cache when the load started.
+     */
+    synchronized void putAll(List<T> entities, long generation) {
+        if (generation != this.generation || entities.size() > maximumSize) {
+            rejections.increment();
+            return;
+        }
+        allEntities = new Entry<>(copyAll(entities), System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Drops an entity and the cached {@code findAll} list, after the entity was written.
+     *
+     * @param id The id of the entity.
+     */
+    public synchronized void invalidate(int id) {
+        entries.remove(id);
+        allEntities = null;
+        generation++;
+    }
+
+    /**
+     * Drops the cached {@code findAll} list, after entities were added.
+     */
+    public synchronized void invalidateAll() {
+        allEntities = null;
+        generation++;
+    }
+
+    /**
+     * Drops everything the cache holds.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        allEntities = null;
+        generation++;
+    }
+
+    /**
+     * Gets the number of entities currently cached.
+     *
+     * @return The number of entities.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to go to the database.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entities removed to make room for others.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of loaded entities that were not admitted because they were asked for too rarely,
+     * or were loaded before an invalidation.
+     *
+     * @return The rejection count.
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Gets the number of entries dropped because they outlived their time to live.
+     *
+     * @return The expiration count.
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{size=" + size() + "/" + maximumSize
+                + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", hitRate=" + String.format("%.2f", getHitRate())
+                + ", evictions=" + getEvictionCount()
+                + ", rejections=" + getRejectionCount()
+                + ", expirations=" + getExpirationCount() + "}";
+    }
+
+    private boolean isExpired(Entry<?> entry) {
+        return System.nanoTime() - entry.expiresAt >= 0;
+    }
+
+    private T copy(T entity) {
+        T copy = rowMapper.newInstance();
+        for (RowMapper.Property property : rowMapper.getProperties()) {
+            property.set(copy, property.get(entity));
+        }
+        return copy;
+    }
+
+    private List<T> copyAll(List<T> entities) {
+        List<T> copies = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            copies.add(copy(entity));
+        }
+        return copies;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * FrequencySketch estimates how often each id was looked up recently, in constant memory.
+     * It is a count-min sketch of four rows of small counters; when the number of recorded lookups reaches
+     * ten times the cache size, every counter is halved so that old popularity fades away.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(maximumSize, 1 << 24)) * 2 - 1);
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        private void increment(int key) {
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(key, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(int key) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][index(key, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int key, int row) {
+            int hash = key * SEEDS[row];
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+            hash *= 0xC2B2AE35;
+            hash ^= hash >>> 16;
+            return hash & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package DB;
+
+/**
+ * EntityListener is told about the entities a DAO has written, so that data derived from a table, such as a
+ * search index, can follow its changes without reading the table again. Listeners are registered per entity
+ * type with {@link EntityListeners#register} and are called by every DAO instance of that type.
+ * <p>
+ * Only writes committed by the DAO itself are reported. Writes made on a connection passed in by the caller,
+ * who decides whether they are committed, are not. Listeners are called on the thread that wrote the entity,
+ * after the write, and must be quick and thread-safe.
+ *
+ * @param <T> The type of the entity.
+ */
+public interface EntityListener<T> {
+
+    /**
+     * Called after an entity was inserted.
+     *
+     * @param entity The inserted entity, with its generated id.
+     */
+    default void inserted(T entity) {
+    }
+
+    /**
+     * Called after an entity was updated.
+     *
+     * @param entity The updated entity.
+     */
+    default void updated(T entity) {
+    }
+
+    /**
+     * Called after an entity was deleted.
+     *
+     * @param id The id of the deleted entity.
+     */
+    default void deleted(int id) {
+    }
+}
@@ -0,0 +1,100 @@
+package DB;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * EntityListeners holds the {@link EntityListener}s of each entity type, shared by every DAO instance of the type.
+ * A listener that throws is logged and does not stop the others, nor fail the write it was told about.
+ */
+public final class EntityListeners {
+    private static final Logger LOGGER = Logger.getLogger(EntityListeners.class.getName());
+    private static final Map<Class<?>, List<EntityListener<?>>> LISTENERS = new ConcurrentHashMap<>();
+
+    private EntityListeners() {
+    }
+
+    /**
+     * Registers a listener for the writes of an entity type.
+     *
+     * @param type     The entity class.
+     * @param listener The listener.
+     * @param <T>      The type of the entity.
+     */
+    public static <T> void register(Class<T> type, EntityListener<? super T> listener) {
+        LISTENERS.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Unregisters a listener of an entity type.
+     *
+     * @param type     The entity class.
+     * @param listener The listener.
+     */
+    public static void unregister(Class<?> type, EntityListener<?> listener) {
+        List<EntityListener<?>> listeners = LISTENERS.get(type);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Tells the listeners of an entity type that an entity was inserted.
+     *
+     * @param type   The entity class.
+     * @param entity The inserted entity.
+     * @param <T>    The type of the entity.
+     */
+    static <T> void fireInserted(Class<T> type, T entity) {
+        for (EntityListener<? super T> listener : listeners(type)) {
+            try {
+                listener.inserted(entity);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, type.getName() + " listener:inserted " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tells the listeners of an entity type that an entity was updated.
+     *
+     * @param type   The entity class.
+     * @param entity The updated entity.
+     * @param <T>    The type of the entity.
+     */
+    static <T> void fireUpdated(Class<T> type, T entity) {
+        for (EntityListener<? super T> listener : listeners(type)) {
+            try {
+                listener.updated(entity);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, type.getName() + " listener:updated " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tells the listeners of an entity type that an entity was deleted.
+     *
+     * @param type The entity class.
+     * @param id   The id of the deleted entity.
+     */
+    static void fireDeleted(Class<?> type, int id) {
+        for (EntityListener<?> listener : listeners(type)) {
+            try {
+                listener.deleted(id);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, type.getName() + " listener:deleted " + e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> List<EntityListener<? super T>> listeners(Class<T> type) {
+        List listeners = LISTENERS.get(type);
+        return listeners != null ? listeners : List.of();
+    }
+}
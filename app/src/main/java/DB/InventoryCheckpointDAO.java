@@ -0,0 +1,64 @@
+package DB;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * InventoryCheckpointDAO reads and writes the checkpoint of the inventory journal: the sequence number of
+ * the last journal record whose stock change is stored in the product table. The checkpoint is written in
+ * the same transaction as the stock changes, so after a crash it tells exactly which journal records
+ * still have to be applied. It is kept in the single row of the {@code inventory_checkpoint} table.
+ */
+public class InventoryCheckpointDAO {
+    private static final String TABLE_NAME = "inventory_checkpoint";
+    private static final int ROW_ID = 1;
+
+    /**
+     * Reads the checkpoint.
+     *
+     * @param connection The connection to read on.
+     * @return The sequence number of the last applied journal record, or 0 if none was ever applied.
+     * @throws SQLException If the query fails.
+     */
+    public long getLastSequence(Connection connection) throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement("SELECT last_sequence FROM " + TABLE_NAME + " WHERE id = ?");
+            statement.setInt(1, ROW_ID);
+            resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+        }
+    }
+
+    /**
+     * Writes the checkpoint on the given connection, without committing.
+     *
+     * @param connection   The connection to write on, whose transaction the caller commits or rolls back.
+     * @param lastSequence The sequence number of the last applied journal record.
+     * @throws SQLException If the statement fails.
+     */
+    public void setLastSequence(Connection connection, long lastSequence) throws SQLException {
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement("UPDATE " + TABLE_NAME + " SET last_sequence = ? WHERE id = ?");
+            statement.setLong(1, lastSequence);
+            statement.setInt(2, ROW_ID);
+            if (statement.executeUpdate() == 1) {
+                return;
+            }
+            ConnectionFactory.close(statement);
+            statement = connection.prepareStatement("INSERT INTO " + TABLE_NAME + " (id, last_sequence) VALUES (?, ?)");
+            statement.setInt(1, ROW_ID);
+            statement.setLong(2, lastSequence);
+            statement.executeUpdate();
+        } finally {
+            ConnectionFactory.close(statement);
+        }
+    }
+}
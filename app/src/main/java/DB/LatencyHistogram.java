@@ -0,0 +1,183 @@
+package DB;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram records durations in nanoseconds into log-linear buckets: every power of two is split
+ * into eight buckets, so any recorded value is reported within 12.5% of its true value, from nanoseconds to
+ * hours, in a fixed array of a few hundred counters. Recording is lock-free and allocation-free, so it can
+ * stay enabled on every DAO call.
+ * <p>
+ * The getters cover every duration recorded since the start. A {@link Snapshot} taken now and subtracted from
+ * one taken earlier describes only the durations recorded in between.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values count as 0.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The count.
+     */
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates the duration below which a given share of the recorded durations fall.
+     *
+     * @param quantile The share, between 0 and 1, such as 0.99 for the 99th percentile.
+     * @return The upper bound of the bucket holding the quantile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    long getQuantile(double quantile) {
+        return Math.min(snapshot().getQuantile(quantile), getMax());
+    }
+
+    /**
+     * Copies the bucket counts and the total of the recorded durations.
+     *
+     * @return The snapshot.
+     */
+    Snapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new Snapshot(snapshot, total.sum());
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * The bucket counts and the total of the durations recorded up to a point in time, or between two points
+     * in time once subtracted from an earlier snapshot.
+     */
+    static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+
+        private Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            long recorded = 0;
+            for (long bucket : counts) {
+                recorded += bucket;
+            }
+            this.count = recorded;
+            this.total = total;
+        }
+
+        /**
+         * Gets the durations recorded since an earlier snapshot of the same histogram.
+         *
+         * @param earlier The earlier snapshot, or null to get this snapshot.
+         * @return The snapshot of the durations recorded in between.
+         */
+        Snapshot minus(Snapshot earlier) {
+            if (earlier == null) {
+                return this;
+            }
+            long[] interval = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                interval[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(interval, total - earlier.total);
+        }
+
+        /**
+         * Gets the number of durations in the snapshot.
+         *
+         * @return The count.
+         */
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the mean of the durations in the snapshot.
+         *
+         * @return The mean in nanoseconds, or 0 if there are none.
+         */
+        double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * Estimates the duration below which a given share of the durations in the snapshot fall.
+         *
+         * @param quantile The share, between 0 and 1; 1 gives the longest duration.
+         * @return The upper bound of the bucket holding the quantile, in nanoseconds, or 0 if there are none.
+         */
+        long getQuantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+    }
+}
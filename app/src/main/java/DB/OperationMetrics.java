@@ -0,0 +1,130 @@
+package DB;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OperationMetrics holds the latency histogram, row count and error count of one operation, such as
+ * {@code findById} on Product or acquiring a pooled connection. The MXBean getters report every call since
+ * the start, while {@link #reportInterval()} reports the calls since its previous report.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String entity;
+    private final String operation;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private LatencyHistogram.Snapshot reportedLatencies;
+    private long reportedRows;
+    private long reportedErrors;
+
+    OperationMetrics(String entity, String operation) {
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    /**
+     * Records a call that succeeded.
+     *
+     * @param startNanos The {@link System#nanoTime()} when the call started.
+     * @param rowCount   The number of rows read or written.
+     */
+    public void record(long startNanos, int rowCount) {
+        latencies.record(System.nanoTime() - startNanos);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Records a call that failed.
+     *
+     * @param startNanos The {@link System#nanoTime()} when the call started.
+     */
+    public void recordError(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+        errors.increment();
+    }
+
+    @Override
+    public String getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.getQuantile(0.5) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.getQuantile(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latencies.getQuantile(0.999) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.getMax() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Describes the calls made since the previous report, and makes this the new starting point.
+     * The maximum is the upper bound of the bucket of the longest call, as the exact one is only kept overall.
+     *
+     * @return The report, or null if there was no call since the previous report.
+     */
+    synchronized String reportInterval() {
+        LatencyHistogram.Snapshot latest = latencies.snapshot();
+        long latestRows = rows.sum();
+        long latestErrors = errors.sum();
+        LatencyHistogram.Snapshot interval = latest.minus(reportedLatencies);
+        long intervalRows = latestRows - reportedRows;
+        long intervalErrors = latestErrors - reportedErrors;
+        reportedLatencies = latest;
+        reportedRows = latestRows;
+        reportedErrors = latestErrors;
+        if (interval.getCount() == 0) {
+            return null;
+        }
+        return String.format("%-12s %-16s count=%d errors=%d rows=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                entity, operation, interval.getCount(), intervalErrors, intervalRows,
+                interval.getMean() / NANOS_PER_MILLI, interval.getQuantile(0.5) / NANOS_PER_MILLI,
+                interval.getQuantile(0.99) / NANOS_PER_MILLI, interval.getQuantile(0.999) / NANOS_PER_MILLI,
+                interval.getQuantile(1) / NANOS_PER_MILLI);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-12s %-16s count=%d errors=%d rows=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+                entity, operation, getCount(), getErrorCount(), getRowCount(), getMeanMillis(),
+                getP50Millis(), getP99Millis(), getP999Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,78 @@
+package DB;
+
+/**
+ * The management interface of {@link OperationMetrics}, under which every DAO operation is published over JMX
+ * as {@code DB:type=DAO,entity=<Entity>,operation=<operation>}.
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * Gets the name of the entity, or of the component for metrics not tied to an entity.
+     *
+     * @return The entity name.
+     */
+    String getEntity();
+
+    /**
+     * Gets the name of the operation.
+     *
+     * @return The operation name.
+     */
+    String getOperation();
+
+    /**
+     * Gets the number of calls, failed ones included.
+     *
+     * @return The call count.
+     */
+    long getCount();
+
+    /**
+     * Gets the number of failed calls.
+     *
+     * @return The error count.
+     */
+    long getErrorCount();
+
+    /**
+     * Gets the number of rows read or written by the calls.
+     *
+     * @return The row count.
+     */
+    long getRowCount();
+
+    /**
+     * Gets the mean duration of a call.
+     *
+     * @return The mean in milliseconds.
+     */
+    double getMeanMillis();
+
+    /**
+     * Gets the median duration of a call.
+     *
+     * @return The 50th percentile in milliseconds.
+     */
+    double getP50Millis();
+
+    /**
+     * Gets the duration that 99% of the calls stay under.
+     *
+     * @return The 99th percentile in milliseconds.
+     */
+    double getP99Millis();
+
+    /**
+     * Gets the duration that 99.9% of the calls stay under.
+     *
+     * @return The 99.9th percentile in milliseconds.
+     */
+    double getP999Millis();
+
+    /**
+     * Gets the longest duration of a call.
+     *
+     * @return The maximum in milliseconds.
+     */
+    double getMaxMillis();
+}
@@ -0,0 +1,55 @@
+package DB;
+
+/**
+ * OptimisticLockException is thrown when a versioned entity is updated after another writer changed or
+ * deleted its row since it was read, so that the update would overwrite changes it has not seen.
+ * Nothing of the update was written when it is thrown; the entity should be read again and the change
+ * applied to the fresh copy, as {@link AbstractDAO#update(int, java.util.function.Consumer, int)} does.
+ * It is unchecked so that {@link AbstractDAO#update(Object)} keeps its signature for unversioned entities.
+ */
+public class OptimisticLockException extends RuntimeException {
+    private final Class<?> type;
+    private final int id;
+    private final long version;
+
+    /**
+     * Constructs a new OptimisticLockException.
+     *
+     * @param type    The entity class.
+     * @param id      The id of the entity.
+     * @param version The version the entity was read with.
+     */
+    public OptimisticLockException(Class<?> type, int id, long version) {
+        super(type.getSimpleName() + " " + id + " was changed or deleted since version " + version + " was read");
+        this.type = type;
+        this.id = id;
+        this.version = version;
+    }
+
+    /**
+     * Gets the class of the entity that could not be updated.
+     *
+     * @return The entity class.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the id of the entity that could not be updated.
+     *
+     * @return The id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the version the entity was read with, which the row no longer holds.
+     *
+     * @return The stale version.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,49 @@
+package DB;
+
+import model.Order1;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Order1DAO is a Data Access Object (DAO) class for managing {@link Order1} entities.
+ * It extends {@link Order1GeneratedDAO}, the {@link AbstractDAO} generated for Order1,
+ * which reads and writes it without reflection on every call, and provides operations for Order1 objects.
+ */
+public class Order1DAO extends Order1GeneratedDAO {
+
+    /**
+     * Inserts a new Order1 into the database.
+     *
+     * @param newOrder1 The Order1 object to insert.
+     * @return The inserted Order1 with an updated ID.
+     */
+    public Order1 insert(Order1 newOrder1) {
+        return super.insert(newOrder1);
+    }
+
+    /**
+     * Streams the orders placed in a date range, in date order, from a forward-only cursor fetching
+     * {@link #getFetchSize()} rows at a time, so that month-end runs over millions of orders use constant memory.
+     * The stream must be closed, preferably in a try-with-resources block.
+     *
+     * @param from The start of the range, inclusive.
+     * @param to   The end of the range, exclusive.
+     * @return A stream of the orders, empty if the query fails.
+     */
+    public Stream<Order1> streamByOrderDate(Timestamp from, Timestamp to) {
+        try {
+            return CursorStreams.open(createFindAllQuery()
+                            + " WHERE order_date >= ? AND order_date < ? ORDER BY order_date, id",
+                    getFetchSize(), this::createRowReader, statement -> {
+                        statement.setTimestamp(1, from);
+                        statement.setTimestamp(2, to);
+                    });
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, getType().getName() + "DAO:streamByOrderDate " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package DB;
+
+import model.OrderItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * OrderItemDAO is a Data Access Object (DAO) class for managing {@link OrderItem} entities.
+ * It extends {@link OrderItemGeneratedDAO}, the {@link AbstractDAO} generated for OrderItem,
+ * which reads and writes it without reflection on every call, and provides operations for the lines of the orders.
+ */
+public class OrderItemDAO extends OrderItemGeneratedDAO {
+
+    /**
+     * Retrieves the lines of an order, using the index on the order ID.
+     *
+     * @param orderId The ID of the order.
+     * @return The lines of the order, in insertion order.
+     */
+    public List<OrderItem> findByOrderId(int orderId) {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        List<OrderItem> items = new ArrayList<>();
+        try {
+            connection = ConnectionFactory.getConnection();
+            statement = connection.prepareStatement("SELECT * FROM " + getStatements().getTableName()
+                    + " WHERE order_id = ? ORDER BY id");
+            statement.setInt(1, orderId);
+            resultSet = statement.executeQuery();
+            items = createObjects(resultSet);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, getType().getName() + "DAO:findByOrderId " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+        return items;
+    }
+
+    /**
+     * Retrieves the lines of several orders at once, using the index on the order ID.
+     *
+     * @param orderIds The IDs of the orders.
+     * @return The lines of the orders, in no particular order.
+     */
+    public List<OrderItem> findByOrderIds(Collection<Integer> orderIds) {
+        Connection connection = null;
+        List<OrderItem> items = new ArrayList<>();
+        try {
+            connection = ConnectionFactory.getConnection();
+            items = findByColumnIn(connection, "order_id", orderIds);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, getType().getName() + "DAO:findByOrderIds " + e.getMessage());
+        } finally {
+            ConnectionFactory.close(connection);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,71 @@
+package DB;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page is one page of a keyset-paginated query together with the cursor to the next page.
+ * The cursor is the sort key and the id of the last row of the page; passing them back to
+ * {@link AbstractDAO#findPage(String, Object, int, int)} continues right after that row.
+ * Whether a next page exists is told by {@link #hasNext()}, as the sort key itself may be null.
+ *
+ * @param <T> The type of the entities in the page.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final Object nextKey;
+    private final int nextId;
+    private final boolean hasNext;
+
+    /**
+     * Creates a page.
+     *
+     * @param items   The entities of the page.
+     * @param nextKey The sort key of the last entity, used as the cursor to the next page.
+     * @param nextId  The id of the last entity, used to break ties between equal sort keys.
+     * @param hasNext Whether more rows follow this page.
+     */
+    public Page(List<T> items, Object nextKey, int nextId, boolean hasNext) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextKey = nextKey;
+        this.nextId = nextId;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Gets the entities of the page.
+     *
+     * @return The entities, in sort order.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the sort key of the last entity of the page.
+     *
+     * @return The sort key to pass as {@code afterKey} for the next page; null for an empty page
+     *         or when the sort column of the last entity is NULL.
+     */
+    public Object getNextKey() {
+        return nextKey;
+    }
+
+    /**
+     * Gets the id of the last entity of the page.
+     *
+     * @return The id to pass as {@code afterId} for the next page, or 0 for an empty page.
+     */
+    public int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Tells whether more rows follow this page.
+     *
+     * @return True if there is a next page.
+     */
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
@@ -0,0 +1,239 @@
+package DB;
+
+import model.Product;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ProductDAO is a Data Access Object (DAO) class for managing {@link Product} entities.
+ * It extends {@link ProductGeneratedDAO}, the {@link AbstractDAO} generated for Product,
+ * which reads and writes it without reflection on every call, and provides CRUD operations for Product objects.
+ */
+public class ProductDAO extends ProductGeneratedDAO {
+
+    /**
+     * Constructs a new ProductDAO instance.
+     */
+    public ProductDAO() {
+        super();
+    }
+
+    /**
+     * Takes ordered quantities out of stock on the given connection, without committing.
+     * Each product is decremented by a conditional UPDATE that only succeeds while enough stock is left,
+     * so concurrent orders cannot oversell or overwrite each other's decrements. The updates are sent as
+     * one batch, in product id order so that concurrent orders lock the rows in the same order.
+     * The version of each decremented product is incremented, so that an edit of the product read before
+     * the order fails instead of writing back the old quantity.
+     * The caller drops the decremented products from the product cache with {@link #invalidateCached(Collection)}
+     * once the transaction is committed.
+     *
+     * @param connection The connection to update on, whose transaction the caller commits or rolls back.
+     * @param quantities The quantity to take out of stock, by product id.
+     * @return The ids of the products that did not have enough stock, empty if every decrement succeeded.
+     * @throws SQLException If the batch fails.
+     */
+    public List<Integer> decrementStock(Connection connection, Map<Integer, Integer> quantities) throws SQLException {
+        List<Integer> outOfStock = new ArrayList<>();
+        if (quantities.isEmpty()) {
+            return outOfStock;
+        }
+        Map<Integer, Integer> ordered = new TreeMap<>(quantities);
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement("UPDATE " + getStatements().getTableName()
+                    + " SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND quantity >= ?");
+            for (Map.Entry<Integer, Integer> entry : ordered.entrySet()) {
+                statement.setInt(1, entry.getValue());
+                statement.setInt(2, entry.getKey());
+                statement.setInt(3, entry.getValue());
+                statement.addBatch();
+            }
+            int[] updateCounts = statement.executeBatch();
+
+            int i = 0;
+            for (Integer productId : ordered.keySet()) {
+                if (updateCounts[i++] != 1) {
+                    outOfStock.add(productId);
+                }
+            }
+        } finally {
+            ConnectionFactory.close(statement);
+        }
+        return outOfStock;
+    }
+
+    /**
+     * Adds net stock changes to the stored quantities on the given connection, without committing.
+     * The changes were already checked against the stock held in memory by the caller, but other writers may
+     * have taken stock from the table meanwhile, so a change is only added while it leaves the quantity at zero
+     * or more. A product whose change would not is locked, read, and set to zero; the quantity it was short
+     * of is returned so that the caller can report the oversold stock. The updates are sent as one batch,
+     * in product id order, and increment the version of each product like {@link #decrementStock} does.
+     * The caller drops the changed products from the product cache once the transaction is committed.
+     *
+     * @param connection The connection to update on, whose transaction the caller commits or rolls back.
+     * @param deltas     The change of quantity by product id, negative for sales and positive for restocks.
+     * @return The quantity each product set to zero was short of, by product id; empty if every change was added.
+     * @throws SQLException If the batch fails.
+     */
+    public Map<Integer, Integer> applyStockDeltas(Connection connection, Map<Integer, Integer> deltas) throws SQLException {
+        Map<Integer, Integer> shortfalls = new TreeMap<>();
+        if (deltas.isEmpty()) {
+            return shortfalls;
+        }
+        Map<Integer, Integer> ordered = new TreeMap<>(deltas);
+        List<Integer> refused = new ArrayList<>();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement("UPDATE " + getStatements().getTableName()
+                    + " SET quantity = quantity + ?, version = version + 1 WHERE id = ? AND quantity + ? >= 0");
+            for (Map.Entry<Integer, Integer> entry : ordered.entrySet()) {
+                statement.setInt(1, entry.getValue());
+                statement.setInt(2, entry.getKey());
+                statement.setInt(3, entry.getValue());
+                statement.addBatch();
+            }
+            int[] updateCounts = statement.executeBatch();
+            int i = 0;
+            for (Integer productId : ordered.keySet()) {
+                if (updateCounts[i++] == 0) {
+                    refused.add(productId);
+                }
+            }
+        } finally {
+            ConnectionFactory.close(statement);
+        }
+
+        for (Integer productId : refused) {
+            int shortfall = clampStock(connection, productId, ordered.get(productId));
+            if (shortfall > 0) {
+                shortfalls.put(productId, shortfall);
+            }
+        }
+        return shortfalls;
+    }
+
+    /**
+     * Adds a stock change to a product as far as its quantity allows, leaving it at zero or more.
+     *
+     * @param connection The connection to update on.
+     * @param productId  The id of the product.
+     * @param delta      The change of quantity.
+     * @return How much the quantity was short of the change, or 0 if the change was added in full or the
+     * product does not exist.
+     * @throws SQLException If the product cannot be read or written.
+     */
+    private int clampStock(Connection connection, int productId, int delta) throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        int quantity;
+        try {
+            statement = connection.prepareStatement("SELECT quantity FROM " + getStatements().getTableName()
+                    + " WHERE id = ? FOR UPDATE");
+            statement.setInt(1, productId);
+            resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                return 0;
+            }
+            quantity = resultSet.getInt(1);
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+        }
+        try {
+            statement = connection.prepareStatement("UPDATE " + getStatements().getTableName()
+                    + " SET quantity = ?, version = version + 1 WHERE id = ?");
+            statement.setInt(1, Math.max(0, quantity + delta));
+            statement.setInt(2, productId);
+            statement.executeUpdate();
+        } finally {
+            ConnectionFactory.close(statement);
+        }
+        return Math.max(0, -(quantity + delta));
+    }
+
+    /**
+     * Finds a Product by its ID.
+     *
+     * @param id The ID of the product to find.
+     * @return The Product with the specified ID, or null if no such product exists.
+     */
+    @Override
+    public Product findById(int id) {
+        return super.findById(id);
+    }
+
+    /**
+     * Inserts a new Product into the database.
+     *
+     * @param newProduct The Product to insert.
+     * @return The inserted Product with an updated ID.
+     */
+    @Override
+    public Product insert(Product newProduct) {
+        return super.insert(newProduct);
+    }
+
+    /**
+     * Inserts several Products into the database in one transaction, using JDBC batches.
+     *
+     * @param newProducts The Products to insert.
+     * @return The inserted Products with updated IDs, or null if none was inserted.
+     */
+    @Override
+    public List<Product> insertAll(Collection<Product> newProducts) {
+        return super.insertAll(newProducts);
+    }
+
+    /**
+     * Updates an existing Product in the database.
+     *
+     * @param updatedProduct The Product with updated values.
+     * @return True if the changes were written or there were none, false if the update failed.
+     */
+    @Override
+    public boolean update(Product updatedProduct) {
+        return super.update(updatedProduct);
+    }
+
+    /**
+     * Updates several Products in one transaction, writing only the columns that changed.
+     *
+     * @param updatedProducts The Products with updated values.
+     * @return True if every change was written, false otherwise.
+     */
+    @Override
+    public boolean updateAll(Collection<Product> updatedProducts) {
+        return super.updateAll(updatedProducts);
+    }
+
+    /**
+     * Deletes a Product from the database by its ID.
+     *
+     * @param id The ID of the Product to delete.
+     * @return True if the Product was deleted, false otherwise.
+     */
+    @Override
+    public boolean delete(int id) {
+        return super.delete(id);
+    }
+
+    /**
+     * Retrieves all Products from the database.
+     *
+     * @return A list of all Products.
+     */
+    @Override
+    public List<Product> findAll() {
+        return super.findAll();
+    }
+}
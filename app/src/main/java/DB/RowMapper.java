@@ -0,0 +1,432 @@
+package DB;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * RowMapper maps the rows of a {@link ResultSet} onto instances of an entity class.
+ * All the reflective work (finding the constructor, the fields and their accessors) is done once per class,
+ * and the accessors are compiled into lambdas through {@link LambdaMetafactory}, so mapping a row is a plain
+ * sequence of typed column reads and setter calls. Mappers are cached per class and are thread-safe.
+ *
+ * @param <T> The type of the entity created from each row.
+ */
+public final class RowMapper<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, RowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Supplier<Object> constructor;
+    private final List<Property> properties;
+    private final Map<String, Property> propertiesByColumn;
+
+    /**
+     * Builds the mapper for the given class.
+     *
+     * @param type The entity class.
+     */
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        this.constructor = constructorOf(type);
+        List<Property> list = new ArrayList<>();
+        Map<String, Property> byColumn = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            Property property = new Property(field);
+            list.add(property);
+            byColumn.put(property.getName().toLowerCase(Locale.ROOT), property);
+        }
+        this.properties = Collections.unmodifiableList(list);
+        this.propertiesByColumn = byColumn;
+    }
+
+    /**
+     * Gets the cached mapper for the given class, building it on first use.
+     *
+     * @param type The entity class.
+     * @param <T>  The type of the entity.
+     * @return The mapper for the class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> forType(Class<T> type) {
+        return (RowMapper<T>) MAPPERS.computeIfAbsent(type, RowMapper::new);
+    }
+
+    /**
+     * Gets the mapped properties, in the order the fields are declared in the entity class.
+     *
+     * @return The list of properties.
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Finds the property mapped to a column, ignoring case.
+     *
+     * @param column The column name.
+     * @return The property, or null if the entity has no such property.
+     */
+    public Property getProperty(String column) {
+        return propertiesByColumn.get(column.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Creates a new, empty instance of the entity.
+     *
+     * @return The new instance.
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        return (T) constructor.get();
+    }
+
+    /**
+     * Binds the mapper to the column layout of a result set. Columns without a matching property are ignored.
+     *
+     * @param metaData The metadata of the result set that will be read.
+     * @return A reader for rows of that result set.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public RowReader<T> bind(ResultSetMetaData metaData) throws SQLException {
+        return bind(metaData, null);
+    }
+
+    /**
+     * Binds the mapper to the column layout of a result set, restricted to the given columns.
+     *
+     * @param metaData The metadata of the result set that will be read.
+     * @param columns  The columns to map, or null to map every column with a matching property.
+     * @return A reader for rows of that result set.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public RowReader<T> bind(ResultSetMetaData metaData, Collection<String> columns) throws SQLException {
+        List<Property> bound = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int columnCount = metaData.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            String label = metaData.getColumnLabel(i);
+            Property property = getProperty(label);
+            if (property != null && (columns == null || containsIgnoreCase(columns, label))) {
+                bound.add(property);
+                indexes.add(i);
+            }
+        }
+        Property[] boundProperties = bound.toArray(new Property[0]);
+        int[] columnIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        return resultSet -> {
+            T instance = newInstance();
+            for (int i = 0; i < boundProperties.length; i++) {
+                Property property = boundProperties[i];
+                property.setter.accept(instance, property.reader.read(resultSet, columnIndexes[i]));
+            }
+            return instance;
+        };
+    }
+
+    /**
+     * Reads every remaining row of a result set.
+     *
+     * @param resultSet The ResultSet to read.
+     * @return A list with one entity per row.
+     * @throws SQLException If the result set cannot be read.
+     */
+    public List<T> mapAll(ResultSet resultSet) throws SQLException {
+        return mapAll(resultSet, null);
+    }
+
+    /**
+     * Reads every remaining row of a result set, mapping only the given columns.
+     *
+     * @param resultSet The ResultSet to read.
+     * @param columns   The columns to map, or null to map every column with a matching property.
+     * @return A list with one entity per row.
+     * @throws SQLException If the result set cannot be read.
+     */
+    public List<T> mapAll(ResultSet resultSet, Collection<String> columns) throws SQLException {
+        RowReader<T> reader = bind(resultSet.getMetaData(), columns);
+        List<T> list = new ArrayList<>();
+        while (resultSet.next()) {
+            list.add(reader.read(resultSet));
+        }
+        return list;
+    }
+
+    /**
+     * Checks whether a collection of column names contains a name, ignoring case.
+     *
+     * @param columns The column names.
+     * @param name    The name to look for.
+     * @return True if the name is in the collection.
+     */
+    private static boolean containsIgnoreCase(Collection<String> columns, String name) {
+        for (String column : columns) {
+            if (column.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles the no-argument constructor of a class into a supplier.
+     *
+     * @param type The entity class.
+     * @return A supplier of new instances.
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructorOf(Class<?> type) {
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            if (Modifier.isPublic(ctor.getModifiers()) && Modifier.isPublic(type.getModifiers())) {
+                MethodHandle handle = LOOKUP.unreflectConstructor(ctor);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            }
+            MethodHandle handle = MethodHandles.privateLookupIn(type, LOOKUP).unreflectConstructor(ctor)
+                    .asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return handle.invokeExact();
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " has no no-argument constructor", e);
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot create a row mapper for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the wrapper class for a primitive type, or the type itself.
+     *
+     * @param type The type.
+     * @return The boxed type.
+     */
+    static Class<?> boxed(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Property describes one mapped field of the entity: its name, its type, how to read it from a
+     * result set column and compiled accessors to get and set it on an instance.
+     */
+    public static final class Property {
+        private final String name;
+        private final Class<?> type;
+        private final ColumnReader reader;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        /**
+         * Builds the accessors of a field, preferring its public getter and setter and falling back to the field.
+         *
+         * @param field The field.
+         */
+        private Property(Field field) {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.reader = ColumnReader.forType(type);
+            Class<?> owner = field.getDeclaringClass();
+            try {
+                Method getterMethod = findAccessor(owner, name, true);
+                Method setterMethod = findAccessor(owner, name, false);
+                MethodHandles.Lookup fieldLookup = MethodHandles.privateLookupIn(owner, LOOKUP);
+                this.getter = getterMethod != null ? compileGetter(getterMethod)
+                        : handleGetter(fieldLookup.unreflectGetter(field));
+                this.setter = setterMethod != null ? compileSetter(setterMethod)
+                        : handleSetter(fieldLookup.unreflectSetter(field));
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("Cannot access property " + owner.getName() + "." + name, e);
+            }
+        }
+
+        /**
+         * Gets the property name, which is also the column name.
+         *
+         * @return The property name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the Java type of the property.
+         *
+         * @return The property type.
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Reads the value of the property from an entity.
+         *
+         * @param entity The entity.
+         * @return The value, boxed for primitive properties.
+         */
+        public Object get(Object entity) {
+            return getter.apply(entity);
+        }
+
+        /**
+         * Writes a value into the property of an entity.
+         *
+         * @param entity The entity.
+         * @param value  The value to write.
+         */
+        public void set(Object entity, Object value) {
+            setter.accept(entity, value);
+        }
+
+        /**
+         * Reads the value of the property from a result set column.
+         *
+         * @param resultSet The ResultSet positioned on a row.
+         * @param index     The column index.
+         * @return The column value converted to the property type.
+         * @throws SQLException If the column cannot be read.
+         */
+        public Object read(ResultSet resultSet, int index) throws SQLException {
+            return reader.read(resultSet, index);
+        }
+
+        /**
+         * Finds the public getter or setter of a property, matching the accessor name case-insensitively
+         * so that accessors such as {@code getclient_id} are found for {@code client_id}.
+         *
+         * @param owner  The class declaring the property.
+         * @param name   The property name.
+         * @param getter True to look for the getter, false for the setter.
+         * @return The accessor, or null if there is none.
+         */
+        private static Method findAccessor(Class<?> owner, String name, boolean getter) {
+            if (!Modifier.isPublic(owner.getModifiers())) {
+                return null;
+            }
+            for (Method method : owner.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String methodName = method.getName();
+                if (getter && method.getParameterCount() == 0 && method.getReturnType() != void.class
+                        && (methodName.equalsIgnoreCase("get" + name) || methodName.equalsIgnoreCase("is" + name))) {
+                    return method;
+                }
+                if (!getter && method.getParameterCount() == 1 && methodName.equalsIgnoreCase("set" + name)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> compileGetter(Method method) throws Throwable {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(boxed(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, Object> compileSetter(Method method) throws Throwable {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), boxed(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+
+        private static Function<Object, Object> handleGetter(MethodHandle handle) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return entity -> {
+                try {
+                    return generic.invokeExact(entity);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+
+        private static BiConsumer<Object, Object> handleSetter(MethodHandle handle) {
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (entity, value) -> {
+                try {
+                    generic.invokeExact(entity, value);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+    }
+
+    /**
+     * ColumnReader reads a column with the typed ResultSet getter matching the property type,
+     * avoiding the driver's generic {@code getObject} conversion.
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+
+        Object read(ResultSet resultSet, int index) throws SQLException;
+
+        /**
+         * Chooses the reader for a property type.
+         *
+         * @param type The property type.
+         * @return The column reader.
+         */
+        static ColumnReader forType(Class<?> type) {
+            if (type == int.class) {
+                return ResultSet::getInt;
+            } else if (type == long.class) {
+                return ResultSet::getLong;
+            } else if (type == double.class) {
+                return ResultSet::getDouble;
+            } else if (type == float.class) {
+                return ResultSet::getFloat;
+            } else if (type == boolean.class) {
+                return ResultSet::getBoolean;
+            } else if (type == short.class) {
+                return ResultSet::getShort;
+            } else if (type == String.class) {
+                return ResultSet::getString;
+            } else if (type == BigDecimal.class) {
+                return ResultSet::getBigDecimal;
+            } else if (type == Timestamp.class) {
+                return ResultSet::getTimestamp;
+            }
+            Class<?> boxedType = boxed(type);
+            return (resultSet, index) -> resultSet.getObject(index, boxedType);
+        }
+    }
+}
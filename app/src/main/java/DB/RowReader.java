@@ -0,0 +1,23 @@
+package DB;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowReader turns the current row of a {@link ResultSet} into an entity.
+ * Readers are bound to the column layout of one result set, so column positions are resolved only once.
+ *
+ * @param <T> The type of the entity created from each row.
+ */
+@FunctionalInterface
+public interface RowReader<T> {
+
+    /**
+     * Creates an entity from the row the result set is currently positioned on.
+     *
+     * @param resultSet The ResultSet positioned on a row.
+     * @return The entity built from the row.
+     * @throws SQLException If a column cannot be read.
+     */
+    T read(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,353 @@
+package DB;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StatementCatalog holds the SQL statements of one entity type together with the ordered accessors
+ * used to bind their parameters. It is built once when a DAO is constructed, so the CRUD operations
+ * no longer rebuild their SQL or walk the declared fields on every call.
+ * <p>
+ * An entity with an int or long property named {@value #VERSION_COLUMN} is versioned: its updates are
+ * only applied while the row still holds the version the entity was read with, and add one to it.
+ *
+ * @param <T> The type of the entity.
+ */
+public final class StatementCatalog<T> {
+
+    /**
+     * The name of the column that makes an entity versioned.
+     */
+    public static final String VERSION_COLUMN = "version";
+
+    private final String tableName;
+    private final RowMapper.Property idProperty;
+    private final RowMapper.Property versionProperty;
+    private final List<RowMapper.Property> valueProperties;
+    private final String columnList;
+    private final String placeholders;
+    private final String findAllQuery;
+    private final String findByIdQuery;
+    private final String insertQuery;
+    private final String updateQuery;
+    private final String deleteQuery;
+    private final Map<Long, String> partialUpdateQueries = new ConcurrentHashMap<>();
+    private final Map<Long, String> versionedUpdateQueries = new ConcurrentHashMap<>();
+    private final Map<String, String> listQueries = new ConcurrentHashMap<>();
+    private final RowMapper<T> rowMapper;
+
+    /**
+     * Builds the catalog from the properties of the entity class.
+     *
+     * @param tableName The table the entity is stored in.
+     * @param rowMapper The mapper of the entity class, whose properties give the columns and their accessors.
+     */
+    StatementCatalog(String tableName, RowMapper<T> rowMapper) {
+        this.tableName = tableName;
+        this.rowMapper = rowMapper;
+        this.idProperty = rowMapper.getProperty("id");
+        List<RowMapper.Property> values = new ArrayList<>();
+        for (RowMapper.Property property : rowMapper.getProperties()) {
+            if (property != idProperty) {
+                values.add(property);
+            }
+        }
+        this.valueProperties = Collections.unmodifiableList(values);
+        RowMapper.Property version = rowMapper.getProperty(VERSION_COLUMN);
+        this.versionProperty = version != null && version != idProperty
+                && (RowMapper.boxed(version.getType()) == Integer.class || RowMapper.boxed(version.getType()) == Long.class)
+                ? version : null;
+
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner marks = new StringJoiner(", ");
+        StringJoiner assignments = new StringJoiner(", ");
+        for (RowMapper.Property property : valueProperties) {
+            columns.add(property.getName());
+            marks.add("?");
+            assignments.add(property.getName() + " = ?");
+        }
+        this.columnList = columns.toString();
+        this.placeholders = marks.toString();
+        this.findAllQuery = "SELECT * FROM " + tableName;
+        this.findByIdQuery = "SELECT * FROM " + tableName + " WHERE id =?";
+        this.insertQuery = "INSERT INTO " + tableName + " (" + columnList + ") VALUES (" + placeholders + ")";
+        this.updateQuery = "UPDATE " + tableName + " SET " + assignments + " WHERE id = ?";
+        this.deleteQuery = "DELETE FROM " + tableName + " WHERE id = ?";
+    }
+
+    /**
+     * Gets the name of the table the entity is stored in.
+     *
+     * @return The table name.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Gets the id property of the entity.
+     *
+     * @return The id property, or null if the entity has none.
+     */
+    public RowMapper.Property getIdProperty() {
+        return idProperty;
+    }
+
+    /**
+     * Gets the version property of a versioned entity.
+     *
+     * @return The version property, or null if the entity is not versioned.
+     */
+    public RowMapper.Property getVersionProperty() {
+        return versionProperty;
+    }
+
+    /**
+     * Gets the bit of the version column in the column masks of {@link #getUpdateQuery(long)}.
+     *
+     * @return The bit of the version column, or 0 if the entity is not versioned.
+     */
+    public long getVersionColumn() {
+        return versionProperty != null ? 1L << valueProperties.indexOf(versionProperty) : 0;
+    }
+
+    /**
+     * Gets the properties of every column except the id, in the order their parameters are bound.
+     *
+     * @return The value properties.
+     */
+    public List<RowMapper.Property> getValueProperties() {
+        return valueProperties;
+    }
+
+    /**
+     * Gets the comma separated list of every column except the id.
+     *
+     * @return The column list.
+     */
+    public String getColumnList() {
+        return columnList;
+    }
+
+    /**
+     * Gets one placeholder per column of {@link #getColumnList()}.
+     *
+     * @return The comma separated placeholders.
+     */
+    public String getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Gets the query selecting every row.
+     *
+     * @return The SQL query string.
+     */
+    public String getFindAllQuery() {
+        return findAllQuery;
+    }
+
+    /**
+     * Gets the query selecting a row by id.
+     *
+     * @return The SQL query string.
+     */
+    public String getFindByIdQuery() {
+        return findByIdQuery;
+    }
+
+    /**
+     * Gets the query selecting the rows whose value of a column is one of a given number of values.
+     *
+     * @param column The column, already known to be a column of the entity.
+     * @param count  The number of parameters of the IN list.
+     * @return The SQL query string.
+     */
+    public String getFindInQuery(String column, int count) {
+        return listQueries.computeIfAbsent("in:" + column + ":" + count, key -> {
+            StringJoiner marks = new StringJoiner(", ", " WHERE " + column + " IN (", ")");
+            for (int i = 0; i < count; i++) {
+                marks.add("?");
+            }
+            return findAllQuery + marks;
+        });
+    }
+
+    /**
+     * Gets the INSERT query for every column except the id.
+     *
+     * @return The SQL query string.
+     */
+    public String getInsertQuery() {
+        return insertQuery;
+    }
+
+    /**
+     * Gets the UPDATE query setting every column except the id, filtered by id.
+     *
+     * @return The SQL query string.
+     */
+    public String getUpdateQuery() {
+        return updateQuery;
+    }
+
+    /**
+     * Gets the query counting the rows that match the filter of a table query.
+     * The filter value, if any, is the only parameter.
+     *
+     * @param query The table query, whose columns have already been checked to be columns of the entity.
+     * @return The SQL query string.
+     */
+    public String getCountQuery(TableQuery query) {
+        return listQueries.computeIfAbsent(key("count", query), key -> "SELECT COUNT(*) FROM " + tableName + where(query));
+    }
+
+    /**
+     * Gets the query selecting the rows of a table query by position.
+     * The parameters are the filter value, if any, then the limit and the offset.
+     *
+     * @param query The table query, whose columns have already been checked to be columns of the entity.
+     * @return The SQL query string.
+     */
+    public String getRangeQuery(TableQuery query) {
+        return listQueries.computeIfAbsent(key("range", query),
+                key -> findAllQuery + where(query) + orderBy(query) + " LIMIT ? OFFSET ?");
+    }
+
+    /**
+     * Gets the query of the first keyset page of a table query, sorted by its sort column and the id.
+     * The parameters are the filter value, if any, then the limit.
+     *
+     * @param query The table query, whose columns have already been checked to be columns of the entity.
+     * @return The SQL query string.
+     */
+    public String getFirstPageQuery(TableQuery query) {
+        return listQueries.computeIfAbsent(key("first", query),
+                key -> findAllQuery + where(query) + orderBy(query) + " LIMIT ?");
+    }
+
+    /**
+     * Gets the query of a later keyset page of a table query, which seeks past the (key, id) of the previous page.
+     * NULL sort keys are placed as MySQL orders them, before every other value when ascending and after them
+     * when descending, so that rows with a NULL key are neither skipped nor read twice.
+     * The parameters are the filter value, if any, then the key, the key again and the id
+     * (only the id when sorting by id or after a NULL key), then the limit.
+     *
+     * @param query     The table query, whose columns have already been checked to be columns of the entity.
+     * @param afterNull Whether the last row of the previous page has a NULL sort key.
+     * @return The SQL query string.
+     */
+    public String getSeekQuery(TableQuery query, boolean afterNull) {
+        return listQueries.computeIfAbsent(key(afterNull ? "seekNull" : "seek", query), key -> {
+            String column = query.getSortColumn();
+            String after = query.isAscending() ? " > ?" : " < ?";
+            String seek;
+            if (isId(column)) {
+                seek = "id" + after;
+            } else if (afterNull) {
+                seek = query.isAscending()
+                        ? "((" + column + " IS NULL AND id > ?) OR " + column + " IS NOT NULL)"
+                        : "(" + column + " IS NULL AND id < ?)";
+            } else {
+                seek = "(" + column + after + " OR (" + column + " = ? AND id" + after + ")"
+                        + (query.isAscending() || !isNullable(column) ? "" : " OR " + column + " IS NULL") + ")";
+            }
+            return findAllQuery + where(query) + (query.isFiltered() ? " AND " : " WHERE ") + seek
+                    + orderBy(query) + " LIMIT ?";
+        });
+    }
+
+    /**
+     * Tells whether the filter of a table query matches by prefix, which it does on string columns.
+     *
+     * @param query The table query.
+     * @return True for a LIKE prefix match, false for an equality match.
+     */
+    public boolean isPrefixFilter(TableQuery query) {
+        RowMapper.Property property = rowMapper.getProperty(query.getFilterColumn());
+        return property != null && property.getType() == String.class;
+    }
+
+    private String where(TableQuery query) {
+        if (!query.isFiltered()) {
+            return "";
+        }
+        return " WHERE " + query.getFilterColumn() + (isPrefixFilter(query) ? " LIKE ?" : " = ?");
+    }
+
+    private String orderBy(TableQuery query) {
+        String direction = query.isAscending() ? " ASC" : " DESC";
+        if (isId(query.getSortColumn())) {
+            return " ORDER BY id" + direction;
+        }
+        return " ORDER BY " + query.getSortColumn() + direction + ", id" + direction;
+    }
+
+    private boolean isNullable(String column) {
+        RowMapper.Property property = rowMapper.getProperty(column);
+        return property == null || !property.getType().isPrimitive();
+    }
+
+    private boolean isId(String column) {
+        return idProperty != null && column.equals(idProperty.getName());
+    }
+
+    private static String key(String kind, TableQuery query) {
+        return kind + ':' + query.getSortColumn() + ':' + query.isAscending() + ':' + query.getFilterColumn();
+    }
+
+    /**
+     * Gets the UPDATE query setting only some of the columns, filtered by id.
+     * The queries are built once per combination of columns and then reused.
+     *
+     * @param columns A bit mask with bit i set for the i-th column of {@link #getValueProperties()}.
+     * @return The SQL query string.
+     */
+    public String getUpdateQuery(long columns) {
+        return partialUpdateQueries.computeIfAbsent(columns, mask -> {
+            StringJoiner assignments = new StringJoiner(", ");
+            for (int i = 0; i < valueProperties.size(); i++) {
+                if ((mask & (1L << i)) != 0) {
+                    assignments.add(valueProperties.get(i).getName() + " = ?");
+                }
+            }
+            return "UPDATE " + tableName + " SET " + assignments + " WHERE id = ?";
+        });
+    }
+
+    /**
+     * Gets the UPDATE query of a versioned entity setting some of the columns and adding one to the version,
+     * filtered by id and by the version the entity was read with. The parameters are the columns set, then
+     * the id, then the version. The queries are built once per combination of columns and then reused.
+     *
+     * @param columns A bit mask with bit i set for the i-th column of {@link #getValueProperties()};
+     *                the bit of the version column is ignored.
+     * @return The SQL query string.
+     */
+    public String getVersionedUpdateQuery(long columns) {
+        return versionedUpdateQueries.computeIfAbsent(columns & ~getVersionColumn(), mask -> {
+            StringJoiner assignments = new StringJoiner(", ");
+            for (int i = 0; i < valueProperties.size(); i++) {
+                if ((mask & (1L << i)) != 0) {
+                    assignments.add(valueProperties.get(i).getName() + " = ?");
+                }
+            }
+            String version = versionProperty.getName();
+            assignments.add(version + " = " + version + " + 1");
+            return "UPDATE " + tableName + " SET " + assignments + " WHERE id = ? AND " + version + " = ?";
+        });
+    }
+
+    /**
+     * Gets the DELETE query filtered by id.
+     *
+     * @return The SQL query string.
+     */
+    public String getDeleteQuery() {
+        return deleteQuery;
+    }
+}
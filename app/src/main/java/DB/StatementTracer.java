@@ -0,0 +1,388 @@
+package DB;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * StatementTracer times every statement run on a pooled connection and logs the statements that are slower
+ * than a threshold, together with their bound parameters, elapsed time and affected rows. A share of all
+ * statements can also be traced whatever their duration, which can be switched on while the application
+ * runs through {@link StatementTracerMXBean}.
+ * <p>
+ * The calling thread only measures the statement and copies its parameters; the log entries are formatted
+ * and written by a background thread. If that thread falls behind, entries are dropped and counted rather
+ * than slowing the database calls down. Parameter values are redacted by default, so that the log never
+ * holds client data; only the type of each parameter is written.
+ * <p>
+ * The threshold, the sample rate and the redaction start from the {@code db.slowQueryMillis},
+ * {@code db.traceSampleRate} and {@code db.redactParameters} system properties. When slow statements are not
+ * logged and the sample rate is 0, statements are handed out without being wrapped.
+ */
+public final class StatementTracer implements StatementTracerMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementTracer.class.getName());
+    private static final long DEFAULT_SLOW_QUERY_MILLIS = 500;
+    private static final int LOG_QUEUE_CAPACITY = 1024;
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final StatementTracer INSTANCE = DAOMetrics.register(new StatementTracer(), "DB:type=StatementTracer");
+
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAdder sampledCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final ExecutorService writer;
+    private volatile long slowQueryNanos;
+    private volatile double sampleRate;
+    private volatile boolean redactParameters;
+
+    private StatementTracer() {
+        setSlowQueryMillis(Long.getLong("db.slowQueryMillis", DEFAULT_SLOW_QUERY_MILLIS));
+        setSampleRate(Double.parseDouble(System.getProperty("db.traceSampleRate", "0")));
+        setRedactParameters(Boolean.parseBoolean(System.getProperty("db.redactParameters", "true")));
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(LOG_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "statement-tracer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedCount.increment());
+    }
+
+    /**
+     * Gets the tracer shared by every pooled connection.
+     *
+     * @return The statement tracer.
+     */
+    public static StatementTracer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wraps a statement so that its executions are timed and traced.
+     *
+     * @param statement The statement created by the physical connection.
+     * @param sql       The SQL of a prepared statement, or null for a plain statement, whose SQL is
+     *                  passed when it is executed.
+     * @return The traced statement, or the statement itself if tracing is off.
+     */
+    Statement trace(Statement statement, String sql) {
+        if (slowQueryNanos < 0 && sampleRate == 0) {
+            return statement;
+        }
+        Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, sql));
+    }
+
+    @Override
+    public long getSlowQueryMillis() {
+        long nanos = slowQueryNanos;
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public void setSlowQueryMillis(long slowQueryMillis) {
+        this.slowQueryNanos = slowQueryMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    @Override
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public void setSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public boolean isRedactParameters() {
+        return redactParameters;
+    }
+
+    @Override
+    public void setRedactParameters(boolean redactParameters) {
+        this.redactParameters = redactParameters;
+    }
+
+    @Override
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    @Override
+    public long getSampledCount() {
+        return sampledCount.sum();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Tells whether a statement that ran for the given time is slower than the threshold.
+     *
+     * @param elapsedNanos How long the execution took.
+     * @return True if the statement is logged as slow.
+     */
+    private boolean isSlow(long elapsedNanos) {
+        long threshold = slowQueryNanos;
+        return threshold >= 0 && elapsedNanos >= threshold;
+    }
+
+    /**
+     * Draws whether a statement that is not slow is logged as part of the sample.
+     *
+     * @return True if the statement is logged.
+     */
+    private boolean isSampled() {
+        double rate = sampleRate;
+        return rate != 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Hands a statement that was chosen to be logged to the log writer.
+     *
+     * @param entry The statement execution, timed by the calling thread.
+     * @param slow  Whether the statement was slower than the threshold.
+     */
+    private void log(TraceEntry entry, boolean slow) {
+        if (slow) {
+            slowCount.increment();
+        } else {
+            sampledCount.increment();
+        }
+        boolean redact = redactParameters;
+        writer.execute(() -> LOGGER.log(slow ? Level.WARNING : Level.INFO, format(entry, slow, redact)));
+    }
+
+    /**
+     * Formats a log entry, on the log writer thread.
+     *
+     * @param entry  The statement execution.
+     * @param slow   Whether the statement was slower than the threshold.
+     * @param redact Whether parameter values are replaced by their type.
+     * @return The log message.
+     */
+    private static String format(TraceEntry entry, boolean slow, boolean redact) {
+        StringBuilder sb = new StringBuilder(slow ? "Slow statement (" : "Statement (");
+        sb.append(String.format("%.3f ms", entry.elapsedNanos() / NANOS_PER_MILLI));
+        if (entry.failed()) {
+            sb.append(", failed");
+        } else if (entry.rows() >= 0) {
+            sb.append(", ").append(entry.rows()).append(" rows");
+        }
+        if (entry.batchSize() > 0) {
+            sb.append(", batch of ").append(entry.batchSize());
+        }
+        sb.append("): ").append(entry.sql());
+        Object[] parameters = entry.parameters();
+        if (parameters.length > 0) {
+            sb.append(" [");
+            for (int i = 0; i < parameters.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(i + 1).append(": ").append(formatValue(parameters[i], redact));
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats one bound parameter.
+     *
+     * @param value  The parameter value.
+     * @param redact Whether the value is replaced by its type.
+     * @return The formatted parameter.
+     */
+    private static String formatValue(Object value, boolean redact) {
+        if (value == null) {
+            return "null";
+        }
+        if (redact) {
+            return value.getClass().getSimpleName();
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_LOGGED_VALUE_LENGTH) {
+            text = text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    /**
+     * One statement execution to be logged.
+     *
+     * @param sql          The SQL that ran.
+     * @param parameters   The parameters bound when it ran; for a batch, those of the last row.
+     * @param batchSize    The number of rows of a batch, 0 for a single execution.
+     * @param elapsedNanos How long the execution took.
+     * @param rows         The number of rows affected, or -1 for queries.
+     * @param failed       Whether the execution threw.
+     */
+    private record TraceEntry(String sql, Object[] parameters, int batchSize, long elapsedNanos, long rows,
+                              boolean failed) {
+    }
+
+    /**
+     * Forwards calls to a statement, remembering the bound parameters and timing the executions.
+     * A statement is used by one thread at a time, so the handler needs no locking.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private String sql;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+        private int batchSize;
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(name, method, args);
+            }
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    Arrays.fill(parameters, 0, parameterCount, null);
+                    parameterCount = 0;
+                    break;
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bind(index, name.equals("setNull") ? null : args[1]);
+                    }
+            }
+            return invokeStatement(method, args);
+        }
+
+        /**
+         * Runs one of the execute methods, timing it.
+         *
+         * @param name   The name of the method.
+         * @param method The method.
+         * @param args   The arguments, starting with the SQL for a plain statement.
+         * @return The result of the execution.
+         * @throws Throwable What the execution threw.
+         */
+        private Object execute(String name, Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                sql = text;
+            }
+            int batch = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch") ? batchSize : 0;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeStatement(method, args);
+            } catch (Throwable e) {
+                finish(batch, System.nanoTime() - start, null, true);
+                throw e;
+            }
+            finish(batch, System.nanoTime() - start, result, false);
+            if (batch > 0) {
+                batchSize = 0;
+            }
+            return result;
+        }
+
+        /**
+         * Decides whether a finished execution is logged, and only then copies what it ran into a log entry,
+         * so that the executions that are not logged allocate nothing.
+         *
+         * @param batch        The number of rows of a batch, 0 for a single execution.
+         * @param elapsedNanos How long the execution took.
+         * @param result       The result of the execution, null if it threw.
+         * @param failed       Whether the execution threw.
+         */
+        private void finish(int batch, long elapsedNanos, Object result, boolean failed) {
+            boolean slow = isSlow(elapsedNanos);
+            if (!slow && !isSampled()) {
+                return;
+            }
+            log(new TraceEntry(sql, Arrays.copyOf(parameters, parameterCount), batch, elapsedNanos,
+                    failed ? -1 : rows(result), failed), slow);
+        }
+
+        /**
+         * Remembers the value bound to a parameter.
+         *
+         * @param index The 1-based parameter index.
+         * @param value The bound value.
+         */
+        private void bind(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        /**
+         * Works out the number of affected rows from the result of an execute method.
+         *
+         * @param result The result.
+         * @return The number of rows, or -1 if the result does not tell.
+         */
+        private long rows(Object result) {
+            if (result instanceof Number count) {
+                return count.longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            return -1;
+        }
+
+        private Object invokeStatement(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
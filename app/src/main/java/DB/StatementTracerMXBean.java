@@ -0,0 +1,71 @@
+package DB;
+
+/**
+ * The management interface of {@link StatementTracer}, published over JMX as {@code DB:type=StatementTracer}
+ * so that the slow-query threshold and the sampled tracing can be changed while the application runs.
+ */
+public interface StatementTracerMXBean {
+
+    /**
+     * Gets the time above which a statement is logged as slow.
+     *
+     * @return The threshold in milliseconds, or a negative value if slow statements are not logged.
+     */
+    long getSlowQueryMillis();
+
+    /**
+     * Sets the time above which a statement is logged as slow.
+     *
+     * @param slowQueryMillis The threshold in milliseconds, or a negative value to stop logging slow statements.
+     */
+    void setSlowQueryMillis(long slowQueryMillis);
+
+    /**
+     * Gets the share of statements that are traced whatever their duration.
+     *
+     * @return The sample rate, between 0 (off) and 1 (every statement).
+     */
+    double getSampleRate();
+
+    /**
+     * Sets the share of statements that are traced whatever their duration.
+     *
+     * @param sampleRate The sample rate, between 0 (off) and 1 (every statement).
+     */
+    void setSampleRate(double sampleRate);
+
+    /**
+     * Tells whether bound parameter values are hidden in the log.
+     *
+     * @return True if only the type of each parameter is logged.
+     */
+    boolean isRedactParameters();
+
+    /**
+     * Sets whether bound parameter values are hidden in the log.
+     *
+     * @param redactParameters True to log only the type of each parameter, false to log the values.
+     */
+    void setRedactParameters(boolean redactParameters);
+
+    /**
+     * Gets the number of statements logged as slow.
+     *
+     * @return The slow statement count.
+     */
+    long getSlowCount();
+
+    /**
+     * Gets the number of statements logged by sampling.
+     *
+     * @return The sampled statement count.
+     */
+    long getSampledCount();
+
+    /**
+     * Gets the number of log entries dropped because the log writer could not keep up.
+     *
+     * @return The dropped entry count.
+     */
+    long getDroppedCount();
+}
@@ -0,0 +1,475 @@
+package DB;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * TableExporter dumps every row of a table to a CSV file with a header row or to an NDJSON file with one
+ * JSON object per row, optionally gzip-compressed. The rows are read from a forward-only cursor fetching
+ * {@link AbstractDAO#getFetchSize()} rows at a time and are written column by column straight from the
+ * {@link ResultSet}, without creating entities: each row is encoded into a direct buffer that is written
+ * to a {@link FileChannel} (through a {@link Deflater} when compressing) whenever it fills up.
+ * The memory used is therefore the same for a table of a hundred rows or of tens of millions.
+ * The rows are written to a temporary file next to the target, which is moved over the target only once
+ * the export is complete, so a failed export never leaves a truncated file or destroys the previous one.
+ */
+public final class TableExporter {
+
+    /**
+     * The file formats the exporter writes.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(TableExporter.class.getName());
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final Map<String, Supplier<AbstractDAO<?>>> TABLES = Map.of(
+            "client", ClientDAO::new,
+            "product", ProductDAO::new,
+            "order1", Order1DAO::new,
+            "order_item", OrderItemDAO::new);
+
+    private final Format format;
+    private final boolean gzip;
+
+    /**
+     * Constructs a new TableExporter.
+     *
+     * @param format The format of the files written.
+     * @param gzip   Whether the files are gzip-compressed.
+     */
+    public TableExporter(Format format, boolean gzip) {
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Constructs the exporter matching the extension of a file: {@code .csv}, {@code .ndjson} or
+     * {@code .jsonl}, each optionally followed by {@code .gz}.
+     *
+     * @param path The file to export to.
+     * @return The exporter.
+     * @throws IllegalArgumentException If the extension is not one of those.
+     */
+    public static TableExporter forPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) {
+            name = name.substring(0, name.length() - 3);
+        }
+        if (name.endsWith(".csv")) {
+            return new TableExporter(Format.CSV, gzip);
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return new TableExporter(Format.NDJSON, gzip);
+        }
+        throw new IllegalArgumentException("Unknown export format, expected .csv, .ndjson or .jsonl, optionally .gz: " + path);
+    }
+
+    /**
+     * Exports every row of the table of a DAO, replacing the file if it exists.
+     * The file is replaced atomically once every row is written; if the export fails, it is left untouched.
+     *
+     * @param dao  The DAO whose table is exported.
+     * @param path The file to write.
+     * @return The number of rows written.
+     * @throws IOException  If the file cannot be written.
+     * @throws SQLException If the rows cannot be read.
+     */
+    public long export(AbstractDAO<?> dao, Path path) throws IOException, SQLException {
+        Path target = path.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+        boolean moved = false;
+        try {
+            long rows = write(dao, temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+            return rows;
+        } finally {
+            if (!moved) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "TableExporter:export " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every row of the table of a DAO to a file.
+     *
+     * @param dao  The DAO whose table is exported.
+     * @param path The file to write.
+     * @return The number of rows written.
+     * @throws IOException  If the file cannot be written.
+     * @throws SQLException If the rows cannot be read.
+     */
+    private long write(AbstractDAO<?> dao, Path path) throws IOException, SQLException {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try (ChannelWriter writer = new ChannelWriter(path, gzip)) {
+            connection = ConnectionFactory.getConnection();
+            if (connection == null) {
+                throw new SQLException("No database connection available");
+            }
+            statement = connection.prepareStatement(dao.createFindAllQuery(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(dao.getFetchSize());
+            resultSet = statement.executeQuery();
+
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            String[] names = new String[columnCount];
+            int[] types = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                names[i] = metaData.getColumnLabel(i + 1);
+                types[i] = metaData.getColumnType(i + 1);
+            }
+
+            StringBuilder line = new StringBuilder(256);
+            if (format == Format.CSV) {
+                for (int i = 0; i < columnCount; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    appendCsv(line, names[i]);
+                }
+                writer.write(line.append('\n'));
+            }
+            long rows = 0;
+            while (resultSet.next()) {
+                line.setLength(0);
+                if (format == Format.CSV) {
+                    appendCsvRow(line, resultSet, types);
+                } else {
+                    appendJsonRow(line, resultSet, names, types);
+                }
+                writer.write(line.append('\n'));
+                rows++;
+            }
+            writer.finish();
+            return rows;
+        } finally {
+            ConnectionFactory.close(resultSet);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+    }
+
+    /**
+     * Exports a table from the command line.
+     *
+     * @param args The table (client, product, order1 or order_item) and the file to write, whose extension
+     *             gives the format.
+     */
+    public static void main(String[] args) {
+        Supplier<AbstractDAO<?>> daoFactory = args.length == 2 ? TABLES.get(args[0].toLowerCase(Locale.ROOT)) : null;
+        if (daoFactory == null) {
+            System.err.println("Usage: TableExporter <client|product|order1|order_item> <file.csv|file.ndjson>[.gz]");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[1]);
+        try {
+            long start = System.nanoTime();
+            long rows = forPath(path).export(daoFactory.get(), path);
+            LOGGER.log(Level.INFO, "Exported " + rows + " rows of " + args[0] + " to " + path + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | SQLException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "TableExporter:export " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void appendCsvRow(StringBuilder line, ResultSet resultSet, int[] types) throws SQLException {
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = read(resultSet, i + 1, types[i]);
+            if (value instanceof String text) {
+                appendCsv(line, text);
+            } else if (value != null) {
+                appendLiteral(line, value);
+            }
+        }
+    }
+
+    private static void appendJsonRow(StringBuilder line, ResultSet resultSet, String[] names, int[] types)
+            throws SQLException {
+        line.append('{');
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendJsonString(line, names[i]);
+            line.append(':');
+            Object value = read(resultSet, i + 1, types[i]);
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof String text) {
+                appendJsonString(line, text);
+            } else {
+                appendLiteral(line, value);
+            }
+        }
+        line.append('}');
+    }
+
+    /**
+     * Reads a column with the getter matching its SQL type.
+     *
+     * @param resultSet The result set positioned on a row.
+     * @param index     The 1-based column index.
+     * @param type      The SQL type of the column.
+     * @return A Long, BigDecimal, Double or Boolean, which are written unquoted, a String for text and dates,
+     * or null.
+     * @throws SQLException If the column cannot be read.
+     */
+    private static Object read(ResultSet resultSet, int index, int type) throws SQLException {
+        Object value;
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                value = resultSet.getLong(index);
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                value = resultSet.getBigDecimal(index);
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = resultSet.getDouble(index);
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = resultSet.getBoolean(index);
+                break;
+            case Types.TIMESTAMP:
+                Timestamp timestamp = resultSet.getTimestamp(index);
+                value = timestamp == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime());
+                break;
+            case Types.DATE:
+                Date date = resultSet.getDate(index);
+                value = date == null ? null : date.toLocalDate().toString();
+                break;
+            default:
+                value = resultSet.getString(index);
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static void appendLiteral(StringBuilder line, Object value) {
+        if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static void appendCsv(StringBuilder line, String text) {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendJsonString(StringBuilder line, String text) {
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Encodes text as UTF-8 into a direct buffer and writes the buffer to a file channel whenever it is full,
+     * deflating it into gzip members on the way when compressing.
+     */
+    private static final class ChannelWriter implements Closeable {
+        private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer data = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Deflater deflater;
+        private final CRC32 crc;
+        private final ByteBuffer compressed;
+        private long uncompressedSize;
+
+        private ChannelWriter(Path path, boolean gzip) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            if (gzip) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                crc = new CRC32();
+                compressed = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                compressed.put(GZIP_HEADER);
+            } else {
+                deflater = null;
+                crc = null;
+                compressed = null;
+            }
+        }
+
+        /**
+         * Encodes text into the buffer, draining the buffer whenever it fills up.
+         *
+         * @param text The text to write.
+         * @throws IOException If the file cannot be written.
+         */
+        private void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            while (encoder.encode(chars, data, true).isOverflow()) {
+                drain();
+            }
+            while (encoder.flush(data) == CoderResult.OVERFLOW) {
+                drain();
+            }
+        }
+
+        /**
+         * Writes the buffered bytes to the channel, or deflates them into the compressed buffer.
+         *
+         * @throws IOException If the file cannot be written.
+         */
+        private void drain() throws IOException {
+            data.flip();
+            if (deflater == null) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            } else {
+                uncompressedSize += data.remaining();
+                crc.update(data.duplicate());
+                // The deflater keeps reading from its input buffer, so it gets a slice that stays empty
+                // once consumed instead of the buffer that is cleared and refilled below.
+                deflater.setInput(data.slice());
+                while (!deflater.needsInput()) {
+                    deflater.deflate(compressed);
+                    if (!compressed.hasRemaining()) {
+                        writeCompressed();
+                    }
+                }
+            }
+            data.clear();
+        }
+
+        private void writeCompressed() throws IOException {
+            compressed.flip();
+            while (compressed.hasRemaining()) {
+                channel.write(compressed);
+            }
+            compressed.clear();
+        }
+
+        /**
+         * Writes everything still buffered and, when compressing, the end of the gzip stream.
+         *
+         * @throws IOException If the file cannot be written.
+         */
+        private void finish() throws IOException {
+            drain();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflater.deflate(compressed);
+                    if (!compressed.hasRemaining()) {
+                        writeCompressed();
+                    }
+                }
+                if (compressed.remaining() < 8) {
+                    writeCompressed();
+                }
+                compressed.putInt((int) crc.getValue());
+                compressed.putInt((int) uncompressedSize);
+                writeCompressed();
+            }
+            channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            channel.close();
+        }
+    }
+}
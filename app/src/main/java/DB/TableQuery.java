@@ -0,0 +1,99 @@
+package DB;
+
+/**
+ * TableQuery describes how a list of entities is sorted and filtered: one sort column and direction,
+ * and an optional filter on one column. The DAOs turn it into ORDER BY and WHERE clauses with bound
+ * parameters, so sorting and filtering are done by the database and its indexes.
+ * A text filter on a string column matches values starting with the text; on any other column it
+ * matches values equal to the text converted to the column type.
+ * TableQuery is immutable; the {@code sortedBy} and {@code filteredBy} methods return modified copies.
+ */
+public final class TableQuery {
+
+    /**
+     * The query listing every row in ascending id order.
+     */
+    public static final TableQuery BY_ID = new TableQuery("id", true, null, null);
+
+    private final String sortColumn;
+    private final boolean ascending;
+    private final String filterColumn;
+    private final String filterValue;
+
+    private TableQuery(String sortColumn, boolean ascending, String filterColumn, String filterValue) {
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.filterColumn = filterColumn;
+        this.filterValue = filterValue;
+    }
+
+    /**
+     * Returns a copy of this query sorted by another column.
+     *
+     * @param column    The column to sort on.
+     * @param ascending True for ascending order, false for descending order.
+     * @return The modified query.
+     */
+    public TableQuery sortedBy(String column, boolean ascending) {
+        return new TableQuery(column, ascending, filterColumn, filterValue);
+    }
+
+    /**
+     * Returns a copy of this query filtered on a column.
+     *
+     * @param column The column to filter on.
+     * @param value  The text to match, or null or empty to remove the filter.
+     * @return The modified query.
+     */
+    public TableQuery filteredBy(String column, String value) {
+        if (value == null || value.isEmpty()) {
+            return new TableQuery(sortColumn, ascending, null, null);
+        }
+        return new TableQuery(sortColumn, ascending, column, value);
+    }
+
+    /**
+     * Gets the column the rows are sorted on.
+     *
+     * @return The sort column.
+     */
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    /**
+     * Tells whether the rows are sorted in ascending order.
+     *
+     * @return True for ascending order.
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Gets the column the rows are filtered on.
+     *
+     * @return The filter column, or null when the rows are not filtered.
+     */
+    public String getFilterColumn() {
+        return filterColumn;
+    }
+
+    /**
+     * Gets the text the filter column is matched against.
+     *
+     * @return The filter text, or null when the rows are not filtered.
+     */
+    public String getFilterValue() {
+        return filterValue;
+    }
+
+    /**
+     * Tells whether the rows are filtered.
+     *
+     * @return True if a filter is set.
+     */
+    public boolean isFiltered() {
+        return filterColumn != null;
+    }
+}
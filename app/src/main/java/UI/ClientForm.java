@@ -1,12 +1,14 @@
 package UI;
 
 import model.Client;
+import DB.AsyncDAO;
 import DB.ClientDAO;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The ClientForm class represents a dialog for adding or editing client information.
@@ -16,7 +18,8 @@ public class ClientForm extends JDialog {
     private JTextField nameField;
     private JTextField emailField;
     private JTextField addressField;
-    private ClientDAO clientDAO;
+    private AsyncDAO<Client> clientDAO;
+    private JButton saveButton;
     private ClientWindow clientWindow;
     private Client client;
 
@@ -30,7 +33,7 @@ public class ClientForm extends JDialog {
     public ClientForm(ClientWindow clientWindow, String title, Client client) {
         this.clientWindow = clientWindow;
         this.client = client;
-        clientDAO = new ClientDAO();
+        clientDAO = new AsyncDAO<>(new ClientDAO());
 
         setTitle(title);
         setModal(true);
@@ -47,7 +50,7 @@ public class ClientForm extends JDialog {
             addressField.setText(client.getAddress());
         }
 
-        JButton saveButton = new JButton("Save");
+        saveButton = new JButton("Save");
         saveButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -69,6 +72,8 @@ public class ClientForm extends JDialog {
 
     /**
      * Saves the client information to the database.
+     * The client is written in the background; the dialog closes and the table refreshes once it is saved,
+     * and stays open with the entered values if it could not be saved.
      */
     private void saveClient() {
         if (client == null) {
@@ -79,13 +84,16 @@ public class ClientForm extends JDialog {
         client.setEmail(emailField.getText());
         client.setAddress(addressField.getText());
 
-        if (client.getId() == 0) {
-            clientDAO.insert(client);
-        } else {
-            clientDAO.update(client);
-        }
-
-        clientWindow.refreshTable();
-        dispose();
+        saveButton.setEnabled(false);
+        CompletableFuture<?> saved = client.getId() == 0 ? clientDAO.insert(client) : clientDAO.update(client);
+        saved.whenCompleteAsync((result, error) -> {
+            if (error != null || result == null || Boolean.FALSE.equals(result)) {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Failed to save the client. Please try again.");
+                return;
+            }
+            clientWindow.refreshTable();
+            dispose();
+        }, SwingUtilities::invokeLater);
     }
 }
@@ -1,12 +1,11 @@
 package UI;
 
+import DB.AsyncDAO;
 import DB.ClientDAO;
 import model.Client;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 /**
  * The ClientWindow class represents a graphical user interface window for client operations.
  * It extends the JFrame class to create a window with Swing components.
@@ -15,7 +14,7 @@ public class ClientWindow extends JFrame {
     /**
      * Constructs a new ClientWindow instance.
      * Sets the title, default close operation, size, and location of the window.
-     * Initializes the table model, loads clients from the database, and sets up buttons for client operations.
+     * Initializes the client table, which loads clients from the database as it is scrolled, and sets up buttons for client operations.
      * Makes the frame visible.
      */
     public ClientWindow() {
@@ -24,7 +23,7 @@ public class ClientWindow extends JFrame {
         setSize(600, 400);
         setLocationRelativeTo(null);
 
-        Table<Client> clientTable = new Table<>("client", Client.class);
+        Table<Client> clientTable = new Table<>("client", getClientDAO());
         add(clientTable, BorderLayout.CENTER);
 
         JButton addButton = new JButton("Add Client");
@@ -55,50 +54,47 @@ public class ClientWindow extends JFrame {
     }
 
     /**
-     * Opens a dialog to edit the selected client.
+     * Opens a dialog to edit the selected client, once it has been loaded in the background.
      */
     private void editClient() {
         int selectedRow = getClientTable().getSelectedRow();
-        if (selectedRow >= 0) {
-            int clientId = (int) getClientTable().getValueAt(selectedRow, 0);
-            Client client = getClientDAO().findById(clientId);
-            ClientForm clientForm = new ClientForm(this, "Edit Client", client);
-            clientForm.setVisible(true);
+        if (selectedRow >= 0 && getClientTable().getValueAt(selectedRow, 0) instanceof Integer clientId) {
+            new AsyncDAO<>(getClientDAO()).findById(clientId).whenCompleteAsync((client, error) -> {
+                if (error != null || client == null) {
+                    JOptionPane.showMessageDialog(this, "Failed to load the client. Please try again.");
+                    return;
+                }
+                ClientForm clientForm = new ClientForm(this, "Edit Client", client);
+                clientForm.setVisible(true);
+            }, SwingUtilities::invokeLater);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a client to edit.");
         }
     }
 
     /**
-     * Deletes the selected client from the database and updates the client table.
+     * Deletes the selected client from the database in the background and then updates the client table,
+     * telling the clerk if it could not be deleted.
      */
     private void deleteClient() {
         int selectedRow = getClientTable().getSelectedRow();
-        if (selectedRow >= 0) {
-            int clientId = (int) getClientTable().getValueAt(selectedRow, 0);
-            getClientDAO().delete(clientId);
-            getClientTableModel().removeRow(selectedRow);
+        if (selectedRow >= 0 && getClientTable().getValueAt(selectedRow, 0) instanceof Integer clientId) {
+            AsyncDAO.submit(() -> getClientDAO().delete(clientId)).whenCompleteAsync((deleted, error) -> {
+                getClientTableModel().refresh();
+                if (error != null || !deleted) {
+                    JOptionPane.showMessageDialog(this, "Failed to delete the client. Please try again.");
+                }
+            }, SwingUtilities::invokeLater);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a client to delete.");
         }
     }
 
     /**
-     * Refreshes the client table by clearing its contents and reloading clients from the database.
+     * Refreshes the client table by dropping its loaded rows, which are then reloaded from the database.
      */
     public void refreshTable() {
-        getClientTableModel().setRowCount(0);
-        loadClients();
-    }
-
-    /**
-     * Loads clients from the database and populates the client table.
-     */
-    private void loadClients() {
-        List<Client> clients = getClientDAO().findAll();
-        for (Client client : clients) {
-            getClientTableModel().addRow(new Object[]{client.getId(), client.getName(), client.getEmail(), client.getAddress()});
-        }
+        getClientTableModel().refresh();
     }
 
     /**
@@ -124,7 +120,7 @@ public class ClientWindow extends JFrame {
      *
      * @return The client table model.
      */
-    private DefaultTableModel getClientTableModel() {
+    private LazyTableModel<Client> getClientTableModel() {
         return ((Table<Client>) getContentPane().getComponent(0)).getTableModel();
     }
 
@@ -0,0 +1,237 @@
+package UI;
+
+import DB.AbstractDAO;
+import DB.RowMapper;
+import DB.TableQuery;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The LazyTableModel class is a table model that loads its rows from the database in fixed-size blocks,
+ * only when the table asks for them. Blocks are loaded off the event dispatch thread; until a block arrives
+ * its rows show empty placeholder cells. Only the most recently used blocks are kept in memory, so the model
+ * stays small however large the table is. Sorting and filtering are described by a {@link TableQuery} and done by
+ * the database, so changing them only reloads the rows that are shown.
+ *
+ * @param <T> The type of the entities shown in the table.
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+    private static final Logger LOGGER = Logger.getLogger(LazyTableModel.class.getName());
+    private static final int BLOCK_SIZE = 200;
+    private static final int MAX_CACHED_BLOCKS = 50;
+
+    private final AbstractDAO<T> dao;
+    private final List<String> columnNames;
+    private final RowMapper.Property[] columnProperties;
+    private final Map<Integer, Object[][]> blocks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private final Map<Integer, Cursor> blockCursors = new HashMap<>();
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+    private TableQuery query = TableQuery.BY_ID;
+    private int rowCount;
+    private int generation;
+
+    /**
+     * Constructs a new LazyTableModel and starts counting the rows in the background.
+     *
+     * @param dao         The DAO the rows are loaded from.
+     * @param columnNames The columns to show, which must match properties of the entity.
+     */
+    public LazyTableModel(AbstractDAO<T> dao, List<String> columnNames) {
+        this.dao = dao;
+        this.columnNames = columnNames;
+        RowMapper<T> rowMapper = RowMapper.forType(dao.getType());
+        this.columnProperties = new RowMapper.Property[columnNames.size()];
+        for (int i = 0; i < columnProperties.length; i++) {
+            columnProperties[i] = rowMapper.getProperty(columnNames.get(i));
+        }
+        refresh();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    /**
+     * Returns the value of a cell, or null while the block holding the row is still loading.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return The cell value, or null as a placeholder.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        int block = row / BLOCK_SIZE;
+        Object[][] rows = blocks.get(block);
+        if (rows == null) {
+            loadBlock(block);
+            return null;
+        }
+        int offset = row % BLOCK_SIZE;
+        return offset < rows.length ? rows[offset][column] : null;
+    }
+
+    /**
+     * Gets the order and the filter of the rows.
+     *
+     * @return The current table query.
+     */
+    public TableQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Changes the order or the filter of the rows and reloads them.
+     * The query is checked before anything is replaced, so an invalid one leaves the table as it was.
+     *
+     * @param query The new table query.
+     * @throws IllegalArgumentException If the query names an unknown column or the filter value does not fit its column.
+     */
+    public void setQuery(TableQuery query) {
+        this.query = dao.checkQuery(query);
+        refresh();
+    }
+
+    /**
+     * Drops every loaded block and counts the rows again, so that the table shows the current data.
+     */
+    public void refresh() {
+        generation++;
+        blocks.clear();
+        blockCursors.clear();
+        pendingBlocks.clear();
+        int requestGeneration = generation;
+        TableQuery requestQuery = query;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return dao.count(requestQuery);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                try {
+                    rowCount = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Error counting rows: " + e.getMessage());
+                    rowCount = 0;
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    /**
+     * Starts loading a block in the background unless it is already being loaded.
+     * A block that directly follows a loaded one seeks past its last row; any other block is read by position.
+     *
+     * @param block The block index.
+     */
+    private void loadBlock(int block) {
+        if (!pendingBlocks.add(block)) {
+            return;
+        }
+        int requestGeneration = generation;
+        TableQuery requestQuery = query;
+        Cursor previous = blockCursors.get(block);
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                if (block == 0) {
+                    return dao.findFirstPage(requestQuery, BLOCK_SIZE).getItems();
+                }
+                if (previous != null) {
+                    return dao.findPage(requestQuery, previous.key(), previous.id(), BLOCK_SIZE).getItems();
+                }
+                return dao.findRange(requestQuery, block * BLOCK_SIZE, BLOCK_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                pendingBlocks.remove(block);
+                try {
+                    storeBlock(block, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Error loading rows: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Converts a loaded block to cell values, remembers where the next block starts and repaints its rows.
+     *
+     * @param block    The block index.
+     * @param entities The entities of the block.
+     */
+    private void storeBlock(int block, List<T> entities) {
+        Object[][] rows = new Object[entities.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            T entity = entities.get(i);
+            Object[] row = new Object[columnProperties.length];
+            for (int column = 0; column < row.length; column++) {
+                row[column] = columnProperties[column] == null ? null : columnProperties[column].get(entity);
+            }
+            rows[i] = row;
+        }
+        blocks.put(block, rows);
+        if (!entities.isEmpty()) {
+            T last = entities.getLast();
+            RowMapper<T> rowMapper = RowMapper.forType(dao.getType());
+            Object sortKey = rowMapper.getProperty(query.getSortColumn()).get(last);
+            int lastId = (Integer) rowMapper.getProperty("id").get(last);
+            blockCursors.put(block + 1, new Cursor(sortKey, lastId));
+        }
+
+        int firstRow = block * BLOCK_SIZE;
+        int lastRow = Math.min(firstRow + BLOCK_SIZE, rowCount) - 1;
+        if (lastRow >= firstRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    /**
+     * The position right after the last row of a loaded block, where the next block starts.
+     *
+     * @param key The sort key of the last row.
+     * @param id  The id of the last row.
+     */
+    private record Cursor(Object key, int id) {
+    }
+}
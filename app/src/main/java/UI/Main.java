@@ -0,0 +1,30 @@
+package UI;
+
+import DB.DAOMetrics;
+import DB.EntityCache;
+import model.Client;
+import model.Product;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+public class Main {
+    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    private static final int CACHE_SIZE = 10_000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration METRICS_REPORT_PERIOD = Duration.ofMinutes(1);
+
+    public static void main(String[] args) {
+        EntityCache.enable(Product.class, CACHE_SIZE, CACHE_TTL);
+        EntityCache.enable(Client.class, CACHE_SIZE, CACHE_TTL);
+        DAOMetrics.startReporting(METRICS_REPORT_PERIOD);
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                new MainUI();
+            }
+        });
+    }
+
+}
@@ -1,23 +1,27 @@
 package UI;
 
+import DB.AsyncDAO;
 import DB.ClientDAO;
-import DB.ProductDAO;
+import DB.CriteriaQuery;
 import model.Client;
-import model.Product;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The OrderStep1Frame class represents the first step in the order creation process.
  * It extends the JFrame class to create a window with Swing components.
  */
 public class OrderStep1Frame extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(OrderStep1Frame.class.getName());
+    private static final CriteriaQuery CLIENT_PICKER_QUERY = CriteriaQuery.ALL.select("name").orderBy("name", true);
     private JComboBox<Client> clientComboBox;
-    private ClientDAO clientDAO;
+    private JButton nextButton;
+    private AsyncDAO<Client> clientDAO;
 
     /**
      * Constructs a new OrderStep1Frame instance.
@@ -31,10 +35,10 @@ public class OrderStep1Frame extends JFrame {
         setSize(400, 200);
         setLocationRelativeTo(null);
 
-        clientDAO = new ClientDAO();
+        clientDAO = new AsyncDAO<>(new ClientDAO());
 
         clientComboBox = new JComboBox<>();
-        JButton nextButton = new JButton("Next");
+        nextButton = new JButton("Next");
 
         loadClients();
 
@@ -54,36 +58,32 @@ public class OrderStep1Frame extends JFrame {
     }
 
     /**
-     * Loads clients from the database and populates the client combo box.
+     * Loads the ids and names of the clients from the database in the background, sorted by name,
+     * and populates the client combo box once they arrive.
      */
     private void loadClients() {
-        List<Client> clients = clientDAO.findAll();
-        for (Client client : clients) {
-            clientComboBox.addItem(client);
-        }
+        clientDAO.findBy(CLIENT_PICKER_QUERY).whenCompleteAsync((clients, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, "Error loading clients: " + error.getMessage());
+                return;
+            }
+            for (Client client : clients) {
+                clientComboBox.addItem(client);
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     /**
      * Moves to the next step in the order creation process.
-     * Closes the current frame and opens the OrderStep2Frame.
+     * Closes the current frame and opens the OrderStep2Frame, which reads the products it shows.
      */
     private void nextStep() {
         Client selectedClient = (Client) clientComboBox.getSelectedItem();
         if (selectedClient != null) {
             dispose();
-            new OrderStep2Frame(selectedClient, getAllProducts());
+            new OrderStep2Frame(selectedClient);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a client.");
         }
     }
-
-    /**
-     * Retrieves all products from the database.
-     *
-     * @return A list of all products.
-     */
-    private List<Product> getAllProducts() {
-        ProductDAO productDAO = new ProductDAO();
-        return productDAO.findAll();
-    }
 }
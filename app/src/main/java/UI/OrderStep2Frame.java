@@ -0,0 +1,363 @@
+package UI;
+
+import BLL.BillGenerator;
+import BLL.OrderService;
+import BLL.OutOfStockException;
+import BLL.ProductSearchIndex;
+import DB.AsyncDAO;
+import DB.ProductDAO;
+import DB.TableQuery;
+import model.Client;
+import model.Order1;
+import model.OrderItem;
+import model.Product;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The OrderStep2Frame class represents the second step in the order creation process.
+ * It allows searching and selecting products and quantities for an order, then placing the order.
+ * At most {@value #MAX_SHOWN_PRODUCTS} products matching the search are shown at a time, after the products
+ * already given a quantity; only the products shown are read from the database.
+ * It extends the JFrame class to create a window with Swing components.
+ */
+public class OrderStep2Frame extends JFrame {
+    private static final int MAX_SHOWN_PRODUCTS = 100;
+
+    private AsyncDAO<Product> productDAO;
+    private Map<Integer, ProductQuantityPanel> productQuantityPanels;
+    private int searchGeneration;
+    private JPanel productsPanel;
+    private JTextField searchField;
+    private ProductSearchIndex searchIndex;
+    private JButton placeOrderButton;
+    private Client client;
+
+    /**
+     * Constructs a new OrderStep2Frame instance.
+     * Sets the title, default close operation, size, and location of the frame.
+     * Creates a search field and a panel for products and quantities, and loads the product search index
+     * in the background; the search field is enabled once it is loaded.
+     * Adds action listener to the "Place Order" button.
+     *
+     * @param client The client for whom the order is being created.
+     */
+    public OrderStep2Frame(Client client) {
+        this.client = client;
+        this.productDAO = new AsyncDAO<>(new ProductDAO());
+
+        setTitle("Select Products and Quantities");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(400, 400);
+        setLocationRelativeTo(null);
+
+        productQuantityPanels = new LinkedHashMap<>();
+
+        JPanel mainPanel = new JPanel();
+        mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
+
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchField = new JTextField(20);
+        searchField.setEnabled(false);
+        searchField.setToolTipText("Loading the product search...");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                showProducts();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                showProducts();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                showProducts();
+            }
+        });
+        searchPanel.add(new JLabel("Search: "));
+        searchPanel.add(searchField);
+        mainPanel.add(searchPanel);
+
+        productsPanel = new JPanel();
+        productsPanel.setLayout(new BoxLayout(productsPanel, BoxLayout.Y_AXIS));
+        mainPanel.add(productsPanel);
+        showProducts();
+
+        placeOrderButton = new JButton("Place Order");
+        placeOrderButton.addActionListener(e -> placeOrder());
+
+        mainPanel.add(placeOrderButton);
+
+        add(new JScrollPane(mainPanel));
+
+        setVisible(true);
+
+        AsyncDAO.submit(ProductSearchIndex::getInstance).whenCompleteAsync((index, error) -> {
+            if (index != null) {
+                searchIndex = index;
+                searchField.setEnabled(true);
+                searchField.setToolTipText("Words of the product name or description");
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Shows the products given a quantity, followed by the products matching the search, or by the first
+     * products when there is no search. The products not shown yet are read in the background; the answer
+     * to a search is dropped if the search changed meanwhile.
+     */
+    private void showProducts() {
+        int requestGeneration = ++searchGeneration;
+        String query = searchField.getText();
+        if (searchIndex == null || query.isBlank()) {
+            AsyncDAO.submit(() -> productDAO.getDAO().findFirstPage(TableQuery.BY_ID, MAX_SHOWN_PRODUCTS).getItems())
+                    .whenCompleteAsync((products, error) -> {
+                        if (products != null && requestGeneration == searchGeneration) {
+                            List<Integer> ids = new ArrayList<>();
+                            for (Product product : products) {
+                                ids.add(product.getId());
+                            }
+                            showProducts(ids, products);
+                        }
+                    }, SwingUtilities::invokeLater);
+            return;
+        }
+        List<Integer> matches = searchIndex.search(query, MAX_SHOWN_PRODUCTS);
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : matches) {
+            if (!productQuantityPanels.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            showProducts(matches, List.of());
+            return;
+        }
+        productDAO.findByIds(missing).whenCompleteAsync((products, error) -> {
+            if (products != null && requestGeneration == searchGeneration) {
+                showProducts(matches, products);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Shows the products given a quantity, followed by the given products in order.
+     * Panels of products that are neither given a quantity nor shown are dropped.
+     *
+     * @param ids      The IDs of the products to show after the products given a quantity.
+     * @param products The products read for the IDs that have no panel yet; IDs found in neither are left out.
+     */
+    private void showProducts(List<Integer> ids, List<Product> products) {
+        Map<Integer, Product> productsById = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getId(), product);
+        }
+        Set<Integer> shown = new LinkedHashSet<>();
+        for (ProductQuantityPanel panel : productQuantityPanels.values()) {
+            if (panel.hasQuantity()) {
+                shown.add(panel.getProduct().getId());
+            }
+        }
+        int limit = shown.size() + MAX_SHOWN_PRODUCTS;
+        for (Integer id : ids) {
+            if (shown.size() >= limit) {
+                break;
+            }
+            if (productQuantityPanels.containsKey(id) || productsById.containsKey(id)) {
+                shown.add(id);
+            }
+        }
+        productQuantityPanels.keySet().retainAll(shown);
+
+        productsPanel.removeAll();
+        for (Integer id : shown) {
+            productsPanel.add(productQuantityPanels.computeIfAbsent(id,
+                    productId -> new ProductQuantityPanel(productsById.get(productId))));
+        }
+        productsPanel.revalidate();
+        productsPanel.repaint();
+    }
+
+    /**
+     * Validates quantities and proceeds with placing the order.
+     * If quantities are valid, the order and its lines are created and the product quantities are taken out
+     * of stock in one transaction. Otherwise, or if a product ran out of stock meanwhile, an error message is shown.
+     * Products left at quantity 0 or left blank are not part of the order.
+     */
+    private void placeOrder() {
+        boolean isValid = true;
+        StringBuilder descriptionBuilder = new StringBuilder();
+        List<OrderItem> items = new ArrayList<>();
+
+        for (ProductQuantityPanel panel : productQuantityPanels.values()) {
+            if (!panel.isValidQuantity()) {
+                isValid = false;
+                break;
+            }
+            Product product = panel.getProduct();
+            int quantity = panel.getQuantity();
+            if (quantity > 0) {
+                descriptionBuilder.append(product.getName())
+                        .append(": ")
+                        .append(quantity)
+                        .append("; ");
+                items.add(new OrderItem(product.getId(), quantity, product.getPrice()));
+            }
+        }
+
+        if (isValid) {
+            String description = descriptionBuilder.toString();
+
+            createOrderInDatabase(client, description, items);
+        } else {
+            JOptionPane.showMessageDialog(this, "Invalid quantity for one or more products.");
+        }
+    }
+
+    /**
+     * Creates an order in the database with the given client, description and lines, taking the ordered
+     * quantities out of stock in the same transaction. The order is placed in the background; the frame closes
+     * once it is placed, or shows why it was not. The bill is then written by a separate background task, so that
+     * a bill that cannot be written is reported as such and never as a failed order.
+     *
+     * @param client      The client for whom the order is being created.
+     * @param description The description of the order.
+     * @param items       The lines of the order.
+     */
+    private void createOrderInDatabase(Client client, String description, List<OrderItem> items) {
+        Order1 order = new Order1();
+        order.setclient_id(client.getId());
+        order.setorder_date(new Timestamp(System.currentTimeMillis()));
+        order.setDescription(description);
+
+        placeOrderButton.setEnabled(false);
+        AsyncDAO.submit(() -> new OrderService().placeOrder(order, items)).whenCompleteAsync((placedOrder, error) -> {
+            if (placedOrder != null) {
+                dispose();
+                generateBill(placedOrder.getId());
+                return;
+            }
+            placeOrderButton.setEnabled(true);
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof OutOfStockException e) {
+                List<String> names = new ArrayList<>();
+                for (ProductQuantityPanel panel : productQuantityPanels.values()) {
+                    if (e.getProductIds().contains(panel.getProduct().getId())) {
+                        names.add(panel.getProduct().getName());
+                    }
+                }
+                JOptionPane.showMessageDialog(this, "Not enough stock left for: " + String.join(", ", names));
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to create the order. Please try again.");
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Writes the bill of a placed order in the background, telling the clerk if it could not be written.
+     *
+     * @param orderId The ID of the placed order.
+     */
+    private static void generateBill(int orderId) {
+        AsyncDAO.submit(() -> new BillGenerator().generate(orderId)).whenCompleteAsync((bill, error) -> {
+            if (bill == null || error != null) {
+                JOptionPane.showMessageDialog(null, "Order " + orderId
+                        + " was placed, but its bill could not be written. It can be generated again later.");
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Inner class representing a panel for a product and its quantity.
+     */
+    private class ProductQuantityPanel extends JPanel {
+        private Product product;
+        private JTextField quantityField;
+
+        /**
+         * Constructs a new ProductQuantityPanel instance.
+         * Sets the layout, creates a label for the product name and a text field for quantity.
+         * Adds components to the panel.
+         *
+         * @param product The product associated with this panel.
+         */
+        public ProductQuantityPanel(Product product) {
+            this.product = product;
+            setLayout(new FlowLayout(FlowLayout.LEFT));
+
+            JLabel nameLabel = new JLabel(product.getName() + " (Quantity: " + product.getQuantity() + "): ");
+            quantityField = new JTextField(5);
+
+            add(nameLabel);
+            add(quantityField);
+        }
+
+        /**
+         * Gets the product associated with this panel.
+         *
+         * @return The product associated with this panel.
+         */
+        public Product getProduct() {
+            return product;
+        }
+
+        /**
+         * Gets the quantity text field associated with this panel.
+         *
+         * @return The quantity text field associated with this panel.
+         */
+        public JTextField getQuantityField() {
+            return quantityField;
+        }
+
+        /**
+         * Tells whether a quantity was entered in the text field.
+         *
+         * @return True if the text field is not blank; false otherwise.
+         */
+        public boolean hasQuantity() {
+            return !quantityField.getText().isBlank();
+        }
+
+        /**
+         * Gets the quantity entered in the text field, a blank field counting as 0.
+         *
+         * @return The quantity.
+         * @throws NumberFormatException If the text field does not hold an integer.
+         */
+        public int getQuantity() {
+            String text = quantityField.getText().trim();
+            return text.isEmpty() ? 0 : Integer.parseInt(text);
+        }
+
+        /**
+         * Checks if the quantity entered in the text field is valid.
+         * A valid quantity is blank, or a non-negative integer less than or equal to the available quantity
+         * of the product.
+         *
+         * @return True if the quantity is valid; false otherwise.
+         */
+        public boolean isValidQuantity() {
+            try {
+                int quantity = getQuantity();
+                return quantity >= 0 && quantity <= product.getQuantity();
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
\ No newline at end of file
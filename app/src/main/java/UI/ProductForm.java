@@ -0,0 +1,214 @@
+package UI;
+
+import DB.AsyncDAO;
+import DB.OptimisticLockException;
+import DB.ProductDAO;
+import model.Product;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.math.BigDecimal;
+
+public class ProductForm extends JDialog {
+    private static final int NAME = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int PRICE = 2;
+    private static final int QUANTITY = 3;
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
+    private JTextField nameField;
+    private JTextField descriptionField;
+    private JTextField priceField;
+    private JTextField quantityField;
+    private AsyncDAO<Product> productDAO;
+    private JButton saveButton;
+    private ProductWindow productWindow;
+    private Product product;
+    private String[] shownTexts;
+
+    /**
+     * Constructs a ProductForm dialog.
+     *
+     * @param productWindow The parent window.
+     * @param title         The title of the dialog.
+     * @param product       The product object to be edited. Null for creating a new product.
+     */
+    public ProductForm(ProductWindow productWindow, String title, Product product) {
+        this.productWindow = productWindow;
+        this.product = product;
+        productDAO = new AsyncDAO<>(new ProductDAO());
+
+        setTitle(title);
+        setModal(true);
+        setSize(300, 250);
+        setLocationRelativeTo(productWindow);
+
+        nameField = new JTextField(20);
+        descriptionField = new JTextField(20);
+        priceField = new JTextField(20);
+        quantityField = new JTextField(20);
+
+        if (product != null) {
+            shownTexts = texts(product);
+            nameField.setText(shownTexts[NAME]);
+            descriptionField.setText(shownTexts[DESCRIPTION]);
+            priceField.setText(shownTexts[PRICE]);
+            quantityField.setText(shownTexts[QUANTITY]);
+        }
+
+        saveButton = new JButton("Save");
+        saveButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                saveProduct();
+            }
+        });
+
+        JPanel panel = new JPanel(new GridLayout(5, 2));
+        panel.add(new JLabel("Name:"));
+        panel.add(nameField);
+        panel.add(new JLabel("Description:"));
+        panel.add(descriptionField);
+        panel.add(new JLabel("Price:"));
+        panel.add(priceField);
+        panel.add(new JLabel("Quantity:"));
+        panel.add(quantityField);
+        panel.add(saveButton);
+
+        add(panel);
+    }
+
+    /**
+     * Saves the product information entered in the form.
+     * The product is written in the background; the dialog closes and the table refreshes once it is saved.
+     * An edited product is read again and only the fields the clerk changed are written to it, so changes made
+     * meanwhile by others, such as the stock taken by orders, are kept. If another user changed one of the same
+     * fields, nothing is written and the product is reloaded.
+     */
+    private void saveProduct() {
+        if (product == null) {
+            insertProduct();
+            return;
+        }
+
+        String[] entered = enteredTexts();
+        String[] shown = shownTexts;
+        boolean[] edited = new boolean[entered.length];
+        for (int i = 0; i < entered.length; i++) {
+            edited[i] = !entered[i].equals(shown[i]);
+        }
+        BigDecimal price = edited[PRICE] ? new BigDecimal(entered[PRICE]) : null;
+        int quantity = edited[QUANTITY] ? Integer.parseInt(entered[QUANTITY]) : 0;
+        int id = product.getId();
+
+        saveButton.setEnabled(false);
+        productDAO.update(id, current -> {
+            String[] currentTexts = texts(current);
+            for (int i = 0; i < currentTexts.length; i++) {
+                if (edited[i] && !currentTexts[i].equals(shown[i])) {
+                    throw new OptimisticLockException(Product.class, id, current.getVersion());
+                }
+            }
+            if (edited[NAME]) {
+                current.setName(entered[NAME]);
+            }
+            if (edited[DESCRIPTION]) {
+                current.setDescription(entered[DESCRIPTION]);
+            }
+            if (edited[PRICE]) {
+                current.setPrice(price);
+            }
+            if (edited[QUANTITY]) {
+                current.setQuantity(quantity);
+            }
+        }, MAX_SAVE_ATTEMPTS).whenCompleteAsync((saved, error) -> {
+            if (error != null && error.getCause() instanceof OptimisticLockException) {
+                reloadAfterConflict();
+                return;
+            }
+            if (error != null) {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Failed to save the product. Please try again.");
+                return;
+            }
+            if (saved == null) {
+                JOptionPane.showMessageDialog(this, "This product was deleted by another user.");
+            }
+            productWindow.refreshTable();
+            dispose();
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Inserts a new product with the values entered in the form.
+     */
+    private void insertProduct() {
+        String[] entered = enteredTexts();
+        Product newProduct = new Product(entered[NAME], entered[DESCRIPTION], new BigDecimal(entered[PRICE]),
+                Integer.parseInt(entered[QUANTITY]));
+
+        saveButton.setEnabled(false);
+        productDAO.insert(newProduct).whenCompleteAsync((result, error) -> {
+            if (error != null || result == null) {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Failed to save the product. Please try again.");
+                return;
+            }
+            productWindow.refreshTable();
+            dispose();
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Reloads the product after another user changed a field the clerk also edited.
+     * The fields the clerk did not edit show the new values; the others keep what the clerk entered and are
+     * now compared with the new values, so saving again knowingly replaces the other user's changes.
+     */
+    private void reloadAfterConflict() {
+        productDAO.findById(product.getId()).whenCompleteAsync((current, error) -> {
+            if (error != null) {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Failed to reload the product. Please try again.");
+                return;
+            }
+            if (current == null) {
+                JOptionPane.showMessageDialog(this, "This product was deleted by another user.");
+                productWindow.refreshTable();
+                dispose();
+                return;
+            }
+            String[] currentTexts = texts(current);
+            JTextField[] fields = {nameField, descriptionField, priceField, quantityField};
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i].getText().equals(shownTexts[i])) {
+                    fields[i].setText(currentTexts[i]);
+                }
+            }
+            product = current;
+            shownTexts = currentTexts;
+            saveButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "This product was changed by another user while you were editing it.\n"
+                    + "It is now: " + currentTexts[NAME] + ", price " + currentTexts[PRICE]
+                    + ", quantity " + currentTexts[QUANTITY] + ".\n"
+                    + "Save again to replace it with the values you entered.");
+        }, SwingUtilities::invokeLater);
+    }
+
+    private String[] enteredTexts() {
+        return new String[]{nameField.getText(), descriptionField.getText(), priceField.getText(), quantityField.getText()};
+    }
+
+    /**
+     * Gets the texts the fields of the form show for a product.
+     *
+     * @param product The product.
+     * @return The name, description, price and quantity, as shown in the form.
+     */
+    private static String[] texts(Product product) {
+        return new String[]{product.getName() != null ? product.getName() : "",
+                product.getDescription() != null ? product.getDescription() : "",
+                String.valueOf(product.getPrice()), String.valueOf(product.getQuantity())};
+    }
+}
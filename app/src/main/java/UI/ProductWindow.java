@@ -1,10 +1,12 @@
 package UI;
 
+import DB.AsyncDAO;
 import DB.ProductDAO;
 import model.Product;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 public class ProductWindow extends JFrame {
     private ProductDAO productDAO;
@@ -21,7 +23,7 @@ public class ProductWindow extends JFrame {
         setSize(600, 400);
         setLocationRelativeTo(null);
 
-        productTable = new Table<>("Product", Product.class);
+        productTable = new Table<>("Product", productDAO);
         add(productTable, BorderLayout.CENTER);
 
         JPanel buttonPanel = new JPanel();
@@ -49,41 +51,51 @@ public class ProductWindow extends JFrame {
     }
 
     /**
-     * Opens a ProductForm dialog for editing the selected product.
+     * Opens a ProductForm dialog for editing the selected product, once it has been loaded in the background.
      */
     private void editProduct() {
-        Product selectedProduct = getSelectedProduct();
+        CompletableFuture<Product> selectedProduct = getSelectedProduct();
         if (selectedProduct != null) {
-            ProductForm productForm = new ProductForm(this, "Edit Product", selectedProduct);
-            productForm.setVisible(true);
+            selectedProduct.whenCompleteAsync((product, error) -> {
+                if (error != null || product == null) {
+                    JOptionPane.showMessageDialog(this, "Failed to load the product. Please try again.");
+                    return;
+                }
+                ProductForm productForm = new ProductForm(this, "Edit Product", product);
+                productForm.setVisible(true);
+            }, SwingUtilities::invokeLater);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a product to edit.");
         }
     }
 
     /**
-     * Deletes the selected product from the database and the table.
+     * Deletes the selected product from the database in the background and then refreshes the table,
+     * telling the clerk if it could not be deleted.
      */
     private void deleteProduct() {
-        Product selectedProduct = getSelectedProduct();
-        if (selectedProduct != null) {
-            productDAO.delete(selectedProduct.getId());
-            productTable.getTableModel().removeRow(productTable.getTable().getSelectedRow());
+        int selectedRow = productTable.getTable().getSelectedRow();
+        if (selectedRow >= 0 && productTable.getTable().getValueAt(selectedRow, 0) instanceof Integer productId) {
+            AsyncDAO.submit(() -> productDAO.delete(productId)).whenCompleteAsync((deleted, error) -> {
+                productTable.getTableModel().refresh();
+                if (error != null || !deleted) {
+                    JOptionPane.showMessageDialog(this, "Failed to delete the product. Please try again.");
+                }
+            }, SwingUtilities::invokeLater);
         } else {
             JOptionPane.showMessageDialog(this, "Please select a product to delete.");
         }
     }
 
     /**
-     * Retrieves the selected product from the table.
+     * Starts loading the selected product from the database in the background.
      *
-     * @return The selected product.
+     * @return A future completed with the selected product, or null if no product is selected.
      */
-    private Product getSelectedProduct() {
+    private CompletableFuture<Product> getSelectedProduct() {
         int selectedRow = productTable.getTable().getSelectedRow();
-        if (selectedRow >= 0) {
-            int productId = (int) productTable.getTable().getValueAt(selectedRow, 0);
-            return productDAO.findById(productId);
+        if (selectedRow >= 0 && productTable.getTable().getValueAt(selectedRow, 0) instanceof Integer productId) {
+            return new AsyncDAO<>(productDAO).findById(productId);
         }
         return null;
     }
@@ -92,6 +104,6 @@ public class ProductWindow extends JFrame {
      * Refreshes the table with the latest product data.
      */
     public void refreshTable() {
-        productTable.getTableModel().setRowCount(0);
+        productTable.getTableModel().refresh();
     }
 }
@@ -0,0 +1,168 @@
+package UI;
+
+import DB.AbstractDAO;
+import DB.AsyncDAO;
+import DB.ColumnFetcher;
+import DB.TableExporter;
+import DB.TableQuery;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class Table<T> extends JComponent {
+    private static final Logger LOGGER = Logger.getLogger(Table.class.getName());
+    private final String tableName;
+    private final AbstractDAO<T> dao;
+    private LazyTableModel<T> tableModel;
+    private JTable table;
+    private ColumnFetcher columnFetcher;
+    private JComboBox<String> filterColumn;
+    private JTextField filterText;
+
+    /**
+     * Constructs a new Table instance with dynamic columns and data.
+     * Only the column names are read while constructing; the rows are loaded in blocks
+     * in the background as the table is scrolled. Clicking a column header sorts on that column,
+     * clicking it again reverses the order, and the filter bar above the table keeps only the rows
+     * whose chosen column starts with (text columns) or equals (other columns) the typed value.
+     * Both are done by the database, so only the rows shown are ever read.
+     * The Export button dumps the whole table to a CSV or NDJSON file in the background.
+     *
+     * @param tableName The name of the table in the database.
+     * @param dao       The DAO the rows are loaded from.
+     */
+    public Table(String tableName, AbstractDAO<T> dao) {
+        this.tableName = tableName;
+        this.dao = dao;
+        columnFetcher = new ColumnFetcher();
+        setLayout(new BorderLayout());
+
+        List<String> columnNames = columnFetcher.fetchColumns(tableName);
+        if (columnNames.isEmpty()) {
+            LOGGER.log(Level.SEVERE, "No columns found for the specified table.");
+        }
+
+        tableModel = new LazyTableModel<>(dao, columnNames);
+        table = new JTable(tableModel);
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortBy(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+        add(createFilterBar(columnNames), BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+    }
+
+    /**
+     * Creates the bar with the column to filter on, the filter value, the buttons applying and clearing it
+     * and the button exporting the table.
+     *
+     * @param columnNames The columns of the table.
+     * @return The filter bar.
+     */
+    private JPanel createFilterBar(List<String> columnNames) {
+        filterColumn = new JComboBox<>(columnNames.toArray(new String[0]));
+        filterText = new JTextField(15);
+        JButton filterButton = new JButton("Filter");
+        JButton clearButton = new JButton("Clear");
+        JButton exportButton = new JButton("Export...");
+
+        filterText.addActionListener(e -> applyFilter());
+        filterButton.addActionListener(e -> applyFilter());
+        clearButton.addActionListener(e -> {
+            filterText.setText("");
+            applyFilter();
+        });
+        exportButton.addActionListener(e -> export());
+
+        JPanel filterBar = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterBar.add(filterColumn);
+        filterBar.add(filterText);
+        filterBar.add(filterButton);
+        filterBar.add(clearButton);
+        filterBar.add(exportButton);
+        return filterBar;
+    }
+
+    /**
+     * Sorts the rows on a column, reversing the order if the rows are already sorted on it.
+     *
+     * @param column The model index of the column.
+     */
+    private void sortBy(int column) {
+        TableQuery query = tableModel.getQuery();
+        String columnName = tableModel.getColumnName(column);
+        boolean ascending = !columnName.equalsIgnoreCase(query.getSortColumn()) || !query.isAscending();
+        setQuery(query.sortedBy(columnName, ascending));
+    }
+
+    /**
+     * Filters the rows on the chosen column and value, or removes the filter if the value is empty.
+     */
+    private void applyFilter() {
+        String columnName = (String) filterColumn.getSelectedItem();
+        setQuery(tableModel.getQuery().filteredBy(columnName, filterText.getText()));
+    }
+
+    /**
+     * Applies a new order or filter, telling the user when the filter value does not fit its column.
+     *
+     * @param query The new table query.
+     */
+    private void setQuery(TableQuery query) {
+        try {
+            tableModel.setQuery(query);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+        }
+    }
+
+    /**
+     * Asks for a file and exports every row of the table to it in the background. The extension of the file
+     * gives the format: .csv or .ndjson, followed by .gz to compress it.
+     */
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(tableName.toLowerCase() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+        TableExporter exporter;
+        try {
+            exporter = TableExporter.forPath(path);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage());
+            return;
+        }
+        AsyncDAO.submit(() -> exporter.export(dao, path)).whenCompleteAsync((rows, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                LOGGER.log(Level.WARNING, "Table:export " + cause.getMessage());
+                JOptionPane.showMessageDialog(this, "The export failed: " + cause.getMessage());
+            } else {
+                JOptionPane.showMessageDialog(this, rows + " rows exported to " + path);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    public JTable getTable() {
+        return table;
+    }
+
+    public LazyTableModel<T> getTableModel() {
+        return tableModel;
+    }
+}
@@ -1,9 +1,12 @@
 package model;
 
+import processor.GenerateDAO;
+
 /**
  * The Client class represents a client entity in the system.
  * It contains properties such as ID, name, email, and address.
  */
+@GenerateDAO
 public class Client {
     private int id;
     private String name;
@@ -1,11 +1,14 @@
 package model;
 
+import processor.GenerateDAO;
+
 import java.sql.Timestamp;
 
 /**
  * The Order1 class represents an order entity in the system.
  * It contains properties such as ID, client ID, order date, and description.
  */
+@GenerateDAO
 public class Order1 {
     private int id;
     private int client_id;
@@ -0,0 +1,145 @@
+package model;
+
+import processor.GenerateDAO;
+
+import java.math.BigDecimal;
+
+/**
+ * The OrderItem class represents one line of an order: a product, the ordered quantity
+ * and the unit price of the product when the order was placed.
+ * It contains properties such as ID, order ID, product ID, quantity, and unit price.
+ */
+@GenerateDAO(table = "order_item")
+public class OrderItem {
+    private int id;
+    private int order_id;
+    private int product_id;
+    private int quantity;
+    private BigDecimal unit_price;
+
+    /**
+     * Default constructor for the OrderItem class.
+     */
+    public OrderItem() {
+    }
+
+    /**
+     * Constructor for creating an OrderItem with specified product ID, quantity, and unit price.
+     * The order ID is set when the order is placed.
+     *
+     * @param product_id The ID of the ordered product.
+     * @param quantity   The ordered quantity.
+     * @param unit_price The price of one unit of the product.
+     */
+    public OrderItem(int product_id, int quantity, BigDecimal unit_price) {
+        this.product_id = product_id;
+        this.quantity = quantity;
+        this.unit_price = unit_price;
+    }
+
+    /**
+     * Gets the ID of the order item.
+     *
+     * @return The ID of the order item.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the order item.
+     *
+     * @param id The ID of the order item.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the order the item belongs to.
+     *
+     * @return The order ID.
+     */
+    public int getorder_id() {
+        return order_id;
+    }
+
+    /**
+     * Sets the ID of the order the item belongs to.
+     *
+     * @param order_id The order ID.
+     */
+    public void setorder_id(int order_id) {
+        this.order_id = order_id;
+    }
+
+    /**
+     * Gets the ID of the ordered product.
+     *
+     * @return The product ID.
+     */
+    public int getproduct_id() {
+        return product_id;
+    }
+
+    /**
+     * Sets the ID of the ordered product.
+     *
+     * @param product_id The product ID.
+     */
+    public void setproduct_id(int product_id) {
+        this.product_id = product_id;
+    }
+
+    /**
+     * Gets the ordered quantity.
+     *
+     * @return The ordered quantity.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Sets the ordered quantity.
+     *
+     * @param quantity The ordered quantity.
+     */
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * Gets the price of one unit of the product when the order was placed.
+     *
+     * @return The unit price.
+     */
+    public BigDecimal getunit_price() {
+        return unit_price;
+    }
+
+    /**
+     * Sets the price of one unit of the product.
+     *
+     * @param unit_price The unit price.
+     */
+    public void setunit_price(BigDecimal unit_price) {
+        this.unit_price = unit_price;
+    }
+
+    /**
+     * Returns a string representation of the order item.
+     *
+     * @return A string representation of the order item.
+     */
+    @Override
+    public String toString() {
+        return "OrderItem{" +
+                "id=" + id +
+                ", order_id=" + order_id +
+                ", product_id=" + product_id +
+                ", quantity=" + quantity +
+                ", unit_price=" + unit_price +
+                '}';
+    }
+}
@@ -1,17 +1,22 @@
 package model;
 
+import processor.GenerateDAO;
+
 import java.math.BigDecimal;
 
 /**
  * The Product class represents a product entity in the system.
  * It contains properties such as ID, name, description, price, and quantity.
+ * Products are versioned, so that two clerks editing the same product cannot overwrite each other's changes.
  */
+@GenerateDAO
 public class Product {
     private int id;
     private String name;
     private String description;
     private BigDecimal price;
     private int quantity;
+    private int version;
 
     /**
      * Default constructor for the Product class.
@@ -123,4 +128,22 @@ public class Product {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    /**
+     * Gets the version of the product, incremented on every update of its row.
+     *
+     * @return The version of the product.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the product.
+     *
+     * @param version The version of the product.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,62 @@
+package DB;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * BenchmarkDatabase creates and fills the tables used by the benchmarks in an in-memory H2 database.
+ * The benchmarks fork a JVM with {@link #URL_PROPERTY}, {@link #USER_PROPERTY} and {@link #PASSWORD_PROPERTY},
+ * so that {@link ConnectionFactory} and its pool connect to that database instead of MySQL.
+ */
+public final class BenchmarkDatabase {
+
+    /**
+     * Points {@link ConnectionFactory} at an in-memory database that lives as long as the JVM.
+     */
+    public static final String URL_PROPERTY = "-Ddb.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    public static final String USER_PROPERTY = "-Ddb.user=sa";
+    public static final String PASSWORD_PROPERTY = "-Ddb.password=";
+    public static final String HEADLESS_PROPERTY = "-Djava.awt.headless=true";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates the Product table and fills it with generated rows, with ids from 1 to the row count.
+     *
+     * @param rows The number of products to insert.
+     * @throws SQLException If the table cannot be created or filled.
+     */
+    public static void createProducts(int rows) throws SQLException {
+        Connection connection = ConnectionFactory.getConnection();
+        Statement statement = null;
+        PreparedStatement insert = null;
+        try {
+            statement = connection.createStatement();
+            statement.execute("DROP TABLE IF EXISTS Product");
+            statement.execute("CREATE TABLE Product (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100), "
+                    + "description VARCHAR(255), price DECIMAL(10, 2), quantity INT, version INT NOT NULL DEFAULT 0)");
+            insert = connection.prepareStatement("INSERT INTO Product (name, description, price, quantity) VALUES (?, ?, ?, ?)");
+            for (int i = 1; i <= rows; i++) {
+                insert.setString(1, "Product " + i);
+                insert.setString(2, "Description of product " + i);
+                insert.setBigDecimal(3, BigDecimal.valueOf(i % 10_000, 2));
+                insert.setInt(4, i % 500);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        } finally {
+            ConnectionFactory.close(insert);
+            ConnectionFactory.close(statement);
+            ConnectionFactory.close(connection);
+        }
+    }
+}
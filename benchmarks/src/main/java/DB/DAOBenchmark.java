@@ -0,0 +1,103 @@
+package DB;
+
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the CRUD operations of {@link AbstractDAO}, its row mapping and {@link ColumnFetcher}
+ * on a Product table of several sizes. Each table size runs in its own forked JVM with a fresh database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_PROPERTY, BenchmarkDatabase.USER_PROPERTY,
+        BenchmarkDatabase.PASSWORD_PROPERTY})
+public class DAOBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int tableSize;
+
+    private ProductDAO productDAO;
+    private Product updatedProduct;
+    private int nextId;
+    private Connection connection;
+    private Statement statement;
+    private ResultSet allRows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.createProducts(tableSize);
+        productDAO = new ProductDAO();
+        updatedProduct = productDAO.findById(1);
+
+        connection = ConnectionFactory.getConnection();
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        allRows = statement.executeQuery("SELECT * FROM Product");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ConnectionFactory.close(allRows);
+        ConnectionFactory.close(statement);
+        ConnectionFactory.close(connection);
+    }
+
+    /**
+     * Maps every row of an already executed query, isolating the row mapping from the query itself.
+     */
+    @Benchmark
+    public List<Product> createObjects() throws SQLException {
+        allRows.beforeFirst();
+        return productDAO.createObjects(allRows);
+    }
+
+    @Benchmark
+    public Product findById() {
+        nextId = nextId % tableSize + 1;
+        return productDAO.findById(nextId);
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productDAO.findAll();
+    }
+
+    @Benchmark
+    public Product insert() {
+        return productDAO.insert(new Product("Benchmark product", "Inserted by the benchmark", BigDecimal.TEN, 1));
+    }
+
+    @Benchmark
+    public Product update() {
+        updatedProduct.setQuantity(updatedProduct.getQuantity() + 1);
+        productDAO.update(updatedProduct);
+        return updatedProduct;
+    }
+
+    @Benchmark
+    public List<Product> fetchAndCreateObjects() {
+        return new ColumnFetcher().fetchAndCreateObjects("Product", Product.class);
+    }
+}
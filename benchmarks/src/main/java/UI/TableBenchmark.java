@@ -0,0 +1,68 @@
+package UI;
+
+import DB.BenchmarkDatabase;
+import DB.ProductDAO;
+import model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Benchmarks opening a {@link Table}: building it on the event dispatch thread, counting the rows and
+ * loading the first visible block, which is what the user waits for when a window opens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkDatabase.URL_PROPERTY, BenchmarkDatabase.USER_PROPERTY,
+        BenchmarkDatabase.PASSWORD_PROPERTY, BenchmarkDatabase.HEADLESS_PROPERTY})
+public class TableBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int tableSize;
+
+    private ProductDAO productDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.createProducts(tableSize);
+        productDAO = new ProductDAO();
+    }
+
+    @Benchmark
+    public Table<Product> openTable() throws Exception {
+        CountDownLatch firstBlockLoaded = new CountDownLatch(1);
+        AtomicReference<Table<Product>> table = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            Table<Product> productTable = new Table<>("Product", productDAO);
+            LazyTableModel<Product> model = productTable.getTableModel();
+            model.addTableModelListener(e -> {
+                if (e.getLastRow() == Integer.MAX_VALUE && model.getRowCount() > 0) {
+                    model.getValueAt(0, 0);
+                } else {
+                    firstBlockLoaded.countDown();
+                }
+            });
+            table.set(productTable);
+        });
+        firstBlockLoaded.await();
+        return table.get();
+    }
+}
@@ -0,0 +1,421 @@
+package processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * DAOProcessor generates a DAO for every class annotated with {@link GenerateDAO}.
+ * The generated DAO extends {@code DB.AbstractDAO} and overrides the hooks that the base class implements
+ * through its row mapper: the SQL strings are constants, parameters are bound with typed setters from the
+ * entity getters and rows are mapped with typed getters into the entity setters. Full, partial and versioned
+ * updates bind their columns the same way, and the values compared to find the changed columns are read with
+ * direct getter calls.
+ * <p>
+ * The base class still builds the reflective row mapper of the entity once, when the first DAO of the type
+ * is created, because criteria queries, table queries and keyset pages resolve their columns through it.
+ * What the generated code removes is the reflection and untyped binding on every call.
+ */
+@SupportedAnnotationTypes("processor.GenerateDAO")
+public class DAOProcessor extends AbstractProcessor {
+
+    private static final String GENERATED_SUFFIX = "GeneratedDAO";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateDAO.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateDAO can only be placed on classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                Entity entity = describe(type);
+                if (entity != null) {
+                    write(entity, type);
+                }
+            } catch (IOException e) {
+                error(type, "Cannot write the generated DAO: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the table name and the mapped columns of an entity class, reporting anything that cannot be generated.
+     *
+     * @param type The annotated class.
+     * @return The entity description, or null if the class cannot be mapped.
+     */
+    private Entity describe(TypeElement type) {
+        GenerateDAO annotation = type.getAnnotation(GenerateDAO.class);
+        String simpleName = type.getSimpleName().toString();
+        String table = annotation.table().isEmpty() ? simpleName : annotation.table();
+        Entity entity = new Entity(annotation.daoPackage(), type.getQualifiedName().toString(), simpleName, table);
+
+        boolean valid = hasPublicNoArgConstructor(type);
+        if (!valid) {
+            error(type, simpleName + " needs a public no-argument constructor");
+        }
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            String javaType = field.asType().toString();
+            ExecutableElement getter = findAccessor(methods, name, true);
+            ExecutableElement setter = findAccessor(methods, name, false);
+            if (getter == null || setter == null) {
+                error(field, "Field " + name + " needs a public getter and setter");
+                valid = false;
+                continue;
+            }
+            Column column = new Column(name, javaType, getter.getSimpleName().toString(), setter.getSimpleName().toString());
+            if (name.equals("id")) {
+                if (!javaType.equals("int")) {
+                    error(field, "The id field must be an int");
+                    valid = false;
+                }
+                entity.id = column;
+            }
+            entity.columns.add(column);
+        }
+        if (entity.id == null) {
+            error(type, simpleName + " needs an int id field");
+            valid = false;
+        }
+        return valid ? entity : null;
+    }
+
+    private boolean hasPublicNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the public getter or setter of a field, matching its name case-insensitively
+     * so that accessors such as {@code getclient_id} are found for {@code client_id}.
+     */
+    private ExecutableElement findAccessor(List<ExecutableElement> methods, String name, boolean getter) {
+        for (ExecutableElement method : methods) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (getter && method.getParameters().isEmpty()
+                    && (methodName.equalsIgnoreCase("get" + name) || methodName.equalsIgnoreCase("is" + name))) {
+                return method;
+            }
+            if (!getter && method.getParameters().size() == 1 && methodName.equalsIgnoreCase("set" + name)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the source of the generated DAO.
+     *
+     * @param entity The entity description.
+     * @param origin The annotated class, recorded as the originating element.
+     * @throws IOException If the source file cannot be written.
+     */
+    private void write(Entity entity, TypeElement origin) throws IOException {
+        String className = entity.simpleName + GENERATED_SUFFIX;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(entity.daoPackage + "." + className, origin);
+        try (Writer writer = file.openWriter()) {
+            writer.write(generate(entity, className));
+        }
+    }
+
+    private String generate(Entity entity, String className) {
+        List<Column> values = new ArrayList<>();
+        for (Column column : entity.columns) {
+            if (column != entity.id) {
+                values.add(column);
+            }
+        }
+        StringJoiner insertColumns = new StringJoiner(", ");
+        StringJoiner insertPlaceholders = new StringJoiner(", ");
+        StringJoiner updateAssignments = new StringJoiner(", ");
+        for (Column column : values) {
+            insertColumns.add(column.name);
+            insertPlaceholders.add("?");
+            updateAssignments.add(column.name + " = ?");
+        }
+        String entityType = entity.qualifiedName;
+        Column version = versionColumn(values);
+        boolean maskBinder = values.size() < Long.SIZE;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(entity.daoPackage).append(";\n\n");
+        sb.append("import java.sql.PreparedStatement;\n");
+        sb.append("import java.sql.ResultSet;\n");
+        sb.append("import java.sql.ResultSetMetaData;\n");
+        sb.append("import java.sql.SQLException;\n");
+        sb.append("import java.util.Locale;\n\n");
+        sb.append("/**\n");
+        sb.append(" * DAO for {@link ").append(entityType).append("}, generated from its fields, which reads, inserts and updates\n");
+        sb.append(" * the entity with direct accessor calls and typed JDBC getters and setters.\n");
+        sb.append(" */\n");
+        sb.append("@javax.annotation.processing.Generated(\"").append(DAOProcessor.class.getName()).append("\")\n");
+        sb.append("public class ").append(className).append(" extends AbstractDAO<").append(entityType).append("> {\n\n");
+        constant(sb, "FIND_ALL_QUERY", "SELECT * FROM " + entity.table);
+        constant(sb, "FIND_BY_ID_QUERY", "SELECT * FROM " + entity.table + " WHERE id =?");
+        constant(sb, "INSERT_QUERY", "INSERT INTO " + entity.table + " (" + insertColumns + ") VALUES (" + insertPlaceholders + ")");
+        if (version == null) {
+            constant(sb, "UPDATE_QUERY", "UPDATE " + entity.table + " SET " + updateAssignments + " WHERE id = ?");
+        }
+        constant(sb, "DELETE_QUERY", "DELETE FROM " + entity.table + " WHERE id = ?");
+        if (maskBinder) {
+            StringJoiner valueColumns = new StringJoiner(", ");
+            for (Column column : values) {
+                valueColumns.add("\"" + column.name + "\"");
+            }
+            sb.append("    private static final String[] VALUE_COLUMNS = {").append(valueColumns).append("};\n");
+        }
+        sb.append("\n");
+        for (int i = 0; i < entity.columns.size(); i++) {
+            sb.append("    private static final int ").append(slot(entity.columns.get(i))).append(" = ").append(i).append(";\n");
+        }
+        sb.append("\n");
+
+        sb.append("    public ").append(className).append("() {\n");
+        sb.append("        super(").append(entityType).append(".class, \"").append(entity.table).append("\"");
+        if (maskBinder) {
+            sb.append(", VALUE_COLUMNS, ").append(className).append("::readValues");
+        }
+        sb.append(");\n");
+        sb.append("    }\n\n");
+
+        query(sb, "createFindAllQuery", "FIND_ALL_QUERY");
+        query(sb, "createFindByIdQuery", "FIND_BY_ID_QUERY");
+        query(sb, "createInsertQuery", "INSERT_QUERY");
+        if (version == null) {
+            query(sb, "createUpdateQuery", "UPDATE_QUERY");
+        }
+        query(sb, "createDeleteQuery", "DELETE_QUERY");
+
+        sb.append("    @Override\n");
+        sb.append("    protected void bindInsertParameters(PreparedStatement statement, ").append(entityType)
+                .append(" entity) throws SQLException {\n");
+        int index = 1;
+        for (Column column : values) {
+            sb.append("        ").append(bind(column, index++)).append("\n");
+        }
+        sb.append("    }\n\n");
+
+        if (version == null) {
+            sb.append("    @Override\n");
+            sb.append("    protected void bindUpdateParameters(PreparedStatement statement, ").append(entityType)
+                    .append(" entity) throws SQLException {\n");
+            index = 1;
+            for (Column column : values) {
+                sb.append("        ").append(bind(column, index++)).append("\n");
+            }
+            sb.append("        ").append(bind(entity.id, index)).append("\n");
+            sb.append("    }\n\n");
+        }
+
+        if (maskBinder) {
+            sb.append("    @Override\n");
+            sb.append("    protected void bindUpdateParameters(PreparedStatement statement, ").append(entityType)
+                    .append(" entity, long columns) throws SQLException {\n");
+            sb.append("        int index = 1;\n");
+            for (int i = 0; i < values.size(); i++) {
+                Column column = values.get(i);
+                if (column == version) {
+                    continue;
+                }
+                sb.append("        if ((columns & ").append(1L << i).append("L) != 0) {\n");
+                sb.append("            ").append(bind(column, "index++")).append("\n");
+                sb.append("        }\n");
+            }
+            sb.append("        ").append(bind(entity.id, version == null ? "index" : "index++")).append("\n");
+            if (version != null) {
+                sb.append("        ").append(bind(version, "index")).append("\n");
+            }
+            sb.append("    }\n\n");
+
+            sb.append("    private static Object[] readValues(").append(entityType).append(" entity) {\n");
+            StringJoiner getters = new StringJoiner(", ");
+            for (Column column : values) {
+                getters.add("entity." + column.getter + "()");
+            }
+            sb.append("        return new Object[]{").append(getters).append("};\n");
+            sb.append("    }\n\n");
+        }
+
+        sb.append("    @Override\n");
+        sb.append("    protected void setGeneratedId(").append(entityType).append(" entity, int id) {\n");
+        sb.append("        entity.").append(entity.id.setter).append("(id);\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    protected RowReader<").append(entityType)
+                .append("> createRowReader(ResultSet resultSet) throws SQLException {\n");
+        sb.append("        ResultSetMetaData metaData = resultSet.getMetaData();\n");
+        sb.append("        int[] columns = new int[").append(entity.columns.size()).append("];\n");
+        sb.append("        for (int i = 1; i <= metaData.getColumnCount(); i++) {\n");
+        sb.append("            switch (metaData.getColumnLabel(i).toLowerCase(Locale.ROOT)) {\n");
+        for (Column column : entity.columns) {
+            sb.append("                case \"").append(column.name.toLowerCase(Locale.ROOT)).append("\" -> columns[")
+                    .append(slot(column)).append("] = i;\n");
+        }
+        sb.append("                default -> {\n");
+        sb.append("                }\n");
+        sb.append("            }\n");
+        sb.append("        }\n");
+        sb.append("        return rs -> {\n");
+        sb.append("            ").append(entityType).append(" entity = new ").append(entityType).append("();\n");
+        for (Column column : entity.columns) {
+            sb.append("            if (columns[").append(slot(column)).append("] > 0) {\n");
+            sb.append("                entity.").append(column.setter).append("(")
+                    .append(read(column, "columns[" + slot(column) + "]")).append(");\n");
+            sb.append("            }\n");
+        }
+        sb.append("            return entity;\n");
+        sb.append("        };\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void constant(StringBuilder sb, String name, String value) {
+        sb.append("    private static final String ").append(name).append(" = \"").append(value).append("\";\n");
+    }
+
+    private static void query(StringBuilder sb, String method, String constant) {
+        sb.append("    @Override\n");
+        sb.append("    protected String ").append(method).append("() {\n");
+        sb.append("        return ").append(constant).append(";\n");
+        sb.append("    }\n\n");
+    }
+
+    private static String slot(Column column) {
+        return column.name.toUpperCase(Locale.ROOT) + "_COLUMN";
+    }
+
+    /**
+     * Finds the column that versions the entity, an int or long named {@code version}, as {@code DB.StatementCatalog} does.
+     */
+    private static Column versionColumn(List<Column> values) {
+        for (Column column : values) {
+            if (column.name.equalsIgnoreCase("version") && (column.javaType.equals("int") || column.javaType.equals("long")
+                    || column.javaType.equals("java.lang.Integer") || column.javaType.equals("java.lang.Long"))) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static String bind(Column column, int index) {
+        return bind(column, String.valueOf(index));
+    }
+
+    /**
+     * Builds the statement that binds a column value from the entity getter, using the typed JDBC setter.
+     */
+    private static String bind(Column column, String index) {
+        String value = "entity." + column.getter + "()";
+        String jdbc = jdbcSuffix(column.javaType);
+        if (jdbc != null) {
+            return "statement.set" + jdbc + "(" + index + ", " + value + ");";
+        }
+        return "statement.setObject(" + index + ", " + value + ");";
+    }
+
+    /**
+     * Builds the expression that reads a column with the typed JDBC getter matching the field type.
+     */
+    private static String read(Column column, String index) {
+        String jdbc = jdbcSuffix(column.javaType);
+        if (jdbc != null) {
+            return "rs.get" + jdbc + "(" + index + ")";
+        }
+        return "rs.getObject(" + index + ", " + column.javaType + ".class)";
+    }
+
+    private static String jdbcSuffix(String javaType) {
+        return switch (javaType) {
+            case "int" -> "Int";
+            case "long" -> "Long";
+            case "double" -> "Double";
+            case "float" -> "Float";
+            case "boolean" -> "Boolean";
+            case "short" -> "Short";
+            case "java.lang.String" -> "String";
+            case "java.math.BigDecimal" -> "BigDecimal";
+            case "java.sql.Timestamp" -> "Timestamp";
+            case "java.sql.Date" -> "Date";
+            default -> null;
+        };
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * The mapping of one annotated class.
+     */
+    private static final class Entity {
+        private final String daoPackage;
+        private final String qualifiedName;
+        private final String simpleName;
+        private final String table;
+        private final List<Column> columns = new ArrayList<>();
+        private Column id;
+
+        private Entity(String daoPackage, String qualifiedName, String simpleName, String table) {
+            this.daoPackage = daoPackage;
+            this.qualifiedName = qualifiedName;
+            this.simpleName = simpleName;
+            this.table = table;
+        }
+    }
+
+    /**
+     * The mapping of one field to its column and accessors.
+     */
+    private static final class Column {
+        private final String name;
+        private final String javaType;
+        private final String getter;
+        private final String setter;
+
+        private Column(String name, String javaType, String getter, String setter) {
+            this.name = name;
+            this.javaType = javaType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
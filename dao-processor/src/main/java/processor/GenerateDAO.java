@@ -0,0 +1,32 @@
+package processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model class for which {@link DAOProcessor} generates a reflection-free DAO at compile time.
+ * The generated class is named {@code <Entity>GeneratedDAO}, extends {@code DB.AbstractDAO<Entity>}
+ * and overrides its SQL, parameter binding and row mapping hooks with plain getter and setter calls.
+ * The model class needs a public no-argument constructor, an int {@code id} field and a public getter
+ * and setter for every field.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateDAO {
+
+    /**
+     * The package the generated DAO is written to.
+     *
+     * @return The package name.
+     */
+    String daoPackage() default "DB";
+
+    /**
+     * The table the entity is stored in. Defaults to the simple name of the class, like {@code AbstractDAO}.
+     *
+     * @return The table name.
+     */
+    String table() default "";
+}
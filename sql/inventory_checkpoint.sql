@@ -0,0 +1,9 @@
+-- Checkpoint of the inventory journal: the sequence number of the last journal record whose
+-- stock change has been added to Product.quantity. It is written in the same transaction as the
+-- stock changes, so that journal records left over after a crash are applied exactly once.
+
+CREATE TABLE IF NOT EXISTS inventory_checkpoint (
+    id            INT    NOT NULL,
+    last_sequence BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,4 @@
+-- Lets the bill generator stream the orders of a date range in date order
+-- without scanning and sorting the whole Order1 table.
+
+CREATE INDEX idx_order1_order_date ON Order1 (order_date, id);
@@ -0,0 +1,17 @@
+-- Lines of the orders, one row per ordered product.
+-- Replaces the free-text "name: qty; ..." lines kept in Order1.description, so that
+-- per-order and per-product queries use the indexes below instead of parsing strings.
+
+CREATE TABLE IF NOT EXISTS order_item (
+    id         INT           NOT NULL AUTO_INCREMENT,
+    order_id   INT           NOT NULL,
+    product_id INT           NOT NULL,
+    quantity   INT           NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_order_item_order (order_id),
+    KEY idx_order_item_product (product_id, order_id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES Order1 (id) ON DELETE CASCADE,
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES Product (id),
+    CONSTRAINT chk_order_item_quantity CHECK (quantity > 0)
+);
@@ -0,0 +1,5 @@
+-- Version of each product, incremented by every update of its row. An edit of a product is only
+-- written if the row still holds the version the product was read with, so that two clerks editing
+-- the same product cannot silently overwrite each other's changes.
+
+ALTER TABLE Product ADD COLUMN version INT NOT NULL DEFAULT 0;
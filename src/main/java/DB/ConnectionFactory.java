@@ -1,105 +0,0 @@
-package DB;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-/**
- * ConnectionFactory is a singleton class responsible for creating and managing database connections.
- * It provides methods to get a new connection and to close connections, statements, and result sets.
- */
-public class ConnectionFactory {
-
-    private static final Logger LOGGER = Logger.getLogger(ConnectionFactory.class.getName());
-    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
-    private static final String DBURL = "jdbc:mysql://localhost:3306/schooldb";
-    private static final String USER = "root";
-    private static final String PASS = "Pass1234!";
-
-    private static ConnectionFactory singleInstance = new ConnectionFactory();
-
-    /**
-     * Private constructor to load the database driver and prevent instantiation.
-     */
-    private ConnectionFactory() {
-        try {
-            Class.forName(DRIVER);
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Creates a new database connection.
-     *
-     * @return A new {@link Connection} object, or null if the connection fails.
-     */
-    private Connection createConnection() {
-        Connection connection = null;
-        try {
-            connection = DriverManager.getConnection(DBURL, USER, PASS);
-        } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, "An error occurred while trying to connect to the database", e);
-            e.printStackTrace();
-        }
-        return connection;
-    }
-
-    /**
-     * Provides a new database connection.
-     *
-     * @return A {@link Connection} object.
-     */
-    public static Connection getConnection() {
-        return singleInstance.createConnection();
-    }
-
-    /**
-     * Closes a database connection.
-     *
-     * @param connection The {@link Connection} to close.
-     */
-    public static void close(Connection connection) {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "An error occurred while trying to close the connection", e);
-            }
-        }
-    }
-
-    /**
-     * Closes a SQL statement.
-     *
-     * @param statement The {@link Statement} to close.
-     */
-    public static void close(Statement statement) {
-        if (statement != null) {
-            try {
-                statement.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "An error occurred while trying to close the statement", e);
-            }
-        }
-    }
-
-    /**
-     * Closes a ResultSet.
-     *
-     * @param resultSet The {@link ResultSet} to close.
-     */
-    public static void close(ResultSet resultSet) {
-        if (resultSet != null) {
-            try {
-                resultSet.close();
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "An error occurred while trying to close the ResultSet", e);
-            }
-        }
-    }
-}
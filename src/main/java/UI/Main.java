@@ -1,18 +0,0 @@
-package UI;
-
-import javax.swing.*;
-import java.util.logging.Logger;
-
-public class Main {
-    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
-
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                new MainUI();
-            }
-        });
-    }
-
-}